@@ -0,0 +1,39 @@
+// k6 load test for comparing platform and virtual thread request handling while requests wait on
+// Postgres and the Hikari pool. Usage:
+//   k6 run -e BASE_URL=http://localhost:8080 -e USERNAME=admin -e PASSWORD=secret loadtest/blocking-db.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = Number(__ENV.VUS || 1000);
+
+export const options = {
+    scenarios: {
+        users: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: __ENV.DURATION || '2m', target: VUS },
+                { duration: '10s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const res = http.post(`${BASE_URL}/api/v1/auth/login`,
+        JSON.stringify({ usernameOrEmail: __ENV.USERNAME, password: __ENV.PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    check(res, { 'logged in': (r) => r.status === 200 });
+    return { token: res.json('data.accessToken') };
+}
+
+export default function (data) {
+    // the listing always goes to the database, so every request holds a pooled connection
+    const res = http.get(`${BASE_URL}/api/v1/users?size=20`, {
+        headers: { Authorization: `Bearer ${data.token}` },
+    });
+    check(res, { 'status is 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,67 @@
+package com.jwt.auth.auth_jwt.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bitmask authority checks against the linear scan over a SimpleGrantedAuthority list they replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthorityCheckBenchmark {
+
+    private AuthorityBits authorityBits;
+    private long mask;
+    private List<GrantedAuthority> authorities;
+
+    @Setup
+    public void setUp() throws Exception {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures("HS512", false, false);
+        UserPrincipal principal = fixtures.principal();
+        authorityBits = fixtures.authorityBits;
+        mask = principal.getAuthorityMask();
+        authorities = principal.getAuthorities().stream()
+                .map(authority -> (GrantedAuthority) new SimpleGrantedAuthority(authority.getAuthority()))
+                .toList();
+    }
+
+    @Benchmark
+    public boolean bitmaskHit() {
+        return authorityBits.hasAuthority(mask, "USER_DELETE");
+    }
+
+    @Benchmark
+    public boolean bitmaskMiss() {
+        return authorityBits.hasAuthority(mask, "ROLE_SUPER_ADMIN");
+    }
+
+    @Benchmark
+    public boolean authorityListHit() {
+        return hasAuthority("USER_DELETE");
+    }
+
+    @Benchmark
+    public boolean authorityListMiss() {
+        return hasAuthority("ROLE_SUPER_ADMIN");
+    }
+
+    private boolean hasAuthority(String authority) {
+        for (GrantedAuthority grantedAuthority : authorities) {
+            if (authority.equals(grantedAuthority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,100 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.config.JwtProperties;
+import com.jwt.auth.auth_jwt.entity.Permission;
+import com.jwt.auth.auth_jwt.entity.Role;
+import com.jwt.auth.auth_jwt.entity.User;
+import com.jwt.auth.auth_jwt.repository.RevokedAccessTokenRepository;
+import com.jwt.auth.auth_jwt.repository.RoleRepository;
+import com.jwt.auth.auth_jwt.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Wires the security components by hand, without a Spring context or database.
+ */
+final class BenchmarkFixtures {
+
+    static final String SECRET = "bvUPO4LP4QOLQhldziMpTRkoQOeT/kz6NjPUAoCQPHgU3MAZjU+BrFJe3wvVm7yUhiPgXO439/9zzVo1L4g+xQ==";
+
+    final AppProperties appProperties = new AppProperties();
+    final JwtProperties jwtProperties = new JwtProperties();
+    final AuthorityBits authorityBits = new AuthorityBits();
+    final UserPrincipalCache userPrincipalCache;
+    final RoleCatalog roleCatalog;
+    final JwtTokenProvider tokenProvider;
+    final CustomUserDetailsService userDetailsService;
+    final User user;
+
+    BenchmarkFixtures(String algorithm, boolean tokenCache, boolean statelessAuthentication) throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        appProperties.getTokenCache().setEnabled(tokenCache);
+        appProperties.getEvents().setEnabled(false);
+        jwtProperties.setAlgorithm(algorithm);
+        jwtProperties.setSecret(SECRET);
+        jwtProperties.setEphemeralKeys(true);
+        jwtProperties.setIssuer("auth-jwt-service");
+        jwtProperties.setStatelessAuthentication(statelessAuthentication);
+        JwtProperties.Token accessToken = new JwtProperties.Token();
+        accessToken.setExpiration(900_000);
+        jwtProperties.setAccessToken(accessToken);
+
+        user = user();
+        RoleRepository roleRepository = mock(RoleRepository.class);
+        when(roleRepository.findAllWithPermissions()).thenReturn(List.copyOf(user.getRoles()));
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findWithRolesById(any())).thenReturn(Optional.of(user));
+
+        userPrincipalCache = new UserPrincipalCache(appProperties, meterRegistry);
+        roleCatalog = new RoleCatalog(roleRepository, userPrincipalCache);
+        roleCatalog.load();
+        userDetailsService = new CustomUserDetailsService(userRepository, userPrincipalCache, roleCatalog, authorityBits);
+
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(appProperties, meterRegistry);
+        JwtSigningKeys signingKeys = new JwtSigningKeys(jwtProperties, new DefaultResourceLoader(), verifiedTokenCache);
+        signingKeys.init();
+        AccessTokenDenylist denylist = new AccessTokenDenylist(
+                mock(RevokedAccessTokenRepository.class), mock(AuthEventPublisher.class), appProperties);
+        tokenProvider = new JwtTokenProvider(jwtProperties, authorityBits, denylist, signingKeys, verifiedTokenCache);
+    }
+
+    UserPrincipal principal() {
+        return UserPrincipal.create(user, roleCatalog, authorityBits);
+    }
+
+    private static User user() {
+        Role userRole = role(1L, "ROLE_USER", "USER_READ");
+        Role adminRole = role(2L, "ROLE_ADMIN", "USER_READ", "USER_WRITE", "USER_DELETE", "ROLE_READ", "ROLE_WRITE");
+        User user = User.builder()
+                .id(42L)
+                .username("benchmark")
+                .email("benchmark@example.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoO5uQ0s6pYh9a5r5t0sS6yY1p0bqz1u9S")
+                .isEmailVerified(true)
+                .build();
+        user.setRoles(Set.of(userRole, adminRole));
+        return user;
+    }
+
+    private static Role role(Long id, String name, String... permissions) {
+        Role role = new Role();
+        role.setId(id);
+        role.setName(name);
+        role.setPermissions(Set.of(permissions).stream().map(permissionName -> {
+            Permission permission = new Permission();
+            permission.setName(permissionName);
+            return permission;
+        }).collect(Collectors.toSet()));
+        return role;
+    }
+}
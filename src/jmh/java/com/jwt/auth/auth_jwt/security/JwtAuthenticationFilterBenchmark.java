@@ -0,0 +1,55 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.utils.Constants;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"HS512", "ES256"})
+    public String algorithm;
+
+    @Param({"false", "true"})
+    public boolean tokenCache;
+
+    @Param({"false", "true"})
+    public boolean statelessAuthentication;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() throws Exception {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(algorithm, tokenCache, statelessAuthentication);
+        filter = new JwtAuthenticationFilter(fixtures.tokenProvider, fixtures.userDetailsService, fixtures.jwtProperties);
+        authorization = Constants.TOKEN_PREFIX + fixtures.tokenProvider.generateToken(fixtures.principal());
+    }
+
+    @Benchmark
+    public void doFilter(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users");
+        request.addHeader(Constants.AUTHORIZATION_HEADER, authorization);
+        FilterChain chain = (req, res) -> blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.jwt.auth.auth_jwt.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenProviderBenchmark {
+
+    @Param({"HS512", "RS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    @Param({"false", "true"})
+    public boolean tokenCache;
+
+    @Param({"false", "true"})
+    public boolean statelessAuthentication;
+
+    private JwtTokenProvider tokenProvider;
+    private UserPrincipal principal;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(algorithm, tokenCache, statelessAuthentication);
+        tokenProvider = fixtures.tokenProvider;
+        principal = fixtures.principal();
+        token = tokenProvider.generateToken(principal);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken(principal);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Long getUserIdFromJWT() {
+        return tokenProvider.getUserIdFromJWT(token);
+    }
+}
@@ -0,0 +1,47 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserPrincipalBenchmark {
+
+    private User user;
+    private RoleCatalog roleCatalog;
+    private AuthorityBits authorityBits;
+    private List<String> roles;
+    private Set<String> permissions;
+
+    @Setup
+    public void setUp() throws Exception {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures("HS512", false, false);
+        user = fixtures.user;
+        roleCatalog = fixtures.roleCatalog;
+        authorityBits = fixtures.authorityBits;
+        UserPrincipal principal = fixtures.principal();
+        roles = List.copyOf(principal.getRoles());
+        permissions = principal.getPermissions();
+    }
+
+    @Benchmark
+    public UserPrincipal createFromUser() {
+        return UserPrincipal.create(user, roleCatalog, authorityBits);
+    }
+
+    @Benchmark
+    public UserPrincipal createFromClaims() {
+        return UserPrincipal.create(user.getId(), user.getUsername(), user.getEmail(), true, roles, permissions, authorityBits);
+    }
+}
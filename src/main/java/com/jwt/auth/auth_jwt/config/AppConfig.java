@@ -1,15 +1,54 @@
 package com.jwt.auth.auth_jwt.config;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.Map;
+
+@Slf4j
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
+    private static final String BCRYPT = "bcrypt";
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(AppProperties appProperties) {
+        AppProperties.Password config = appProperties.getPassword();
+        int strength = config.getBcryptStrength() > 0
+                ? config.getBcryptStrength()
+                : calibrateBcryptStrength(config.getTargetHashTime());
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        // hashes stored before {id} prefixes were introduced are plain BCrypt; they are upgraded on login
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    private static int calibrateBcryptStrength(Duration target) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_BCRYPT_STRENGTH);
+        probe.encode("calibration");
+        int samples = 3;
+        long start = System.nanoTime();
+        for (int i = 0; i < samples; i++) {
+            probe.encode("calibration");
+        }
+        double millis = (System.nanoTime() - start) / 1e6 / samples;
+        int strength = MIN_BCRYPT_STRENGTH;
+        // each step doubles the cost
+        while (strength < MAX_BCRYPT_STRENGTH && millis * 2 <= target.toMillis()) {
+            millis *= 2;
+            strength++;
+        }
+        log.info("Calibrated BCrypt strength {} (~{} ms per hash, target {} ms)", strength, Math.round(millis), target.toMillis());
+        return strength;
     }
 }
@@ -5,6 +5,7 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
 import java.util.List;
 
 @Getter
@@ -14,6 +15,18 @@ import java.util.List;
 public class AppProperties {
 
     private Security security;
+    private UserCache userCache = new UserCache();
+    private Pagination pagination = new Pagination();
+    private Export export = new Export();
+    private RefreshTokenCleanup refreshTokenCleanup = new RefreshTokenCleanup();
+    private Session session = new Session();
+    private AccessTokenDenylist accessTokenDenylist = new AccessTokenDenylist();
+    private Events events = new Events();
+    private TokenCache tokenCache = new TokenCache();
+    private Login login = new Login();
+    private Password password = new Password();
+    private LoginActivity loginActivity = new LoginActivity();
+    private LoginLimiter loginLimiter = new LoginLimiter();
 
     @Getter
     @Setter
@@ -21,4 +34,101 @@ public class AppProperties {
         private List<String> allowedOrigins;
         private List<String> publicEndpoints;
     }
+
+    @Getter
+    @Setter
+    public static class UserCache {
+        private boolean enabled = true;
+        private long maxSize = 10_000;
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Pagination {
+        private int defaultPageSize = 20;
+        private int maxPageSize = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Export {
+        private int fetchSize = 500;
+        private Duration timeout = Duration.ofMinutes(30);
+    }
+
+    @Getter
+    @Setter
+    public static class RefreshTokenCleanup {
+        private boolean enabled = true;
+        private int batchSize = 1000;
+        // defaults to the refresh token lifetime, so a replayed revoked token is still found for reuse detection
+        private Duration revokedRetention;
+    }
+
+    @Getter
+    @Setter
+    public static class Session {
+        // 0 or less disables the cap
+        private int maxActivePerUser = 5;
+        // a rotated token presented again within this window is treated as a concurrent refresh, not a replay
+        private Duration rotationGrace = Duration.ofSeconds(10);
+    }
+
+    @Getter
+    @Setter
+    public static class AccessTokenDenylist {
+        private long expectedInsertions = 100_000;
+        private double falsePositiveRate = 0.01;
+    }
+
+    @Getter
+    @Setter
+    public static class Events {
+        private boolean enabled = true;
+        private String channel = "auth_events";
+        private Duration reconnectDelay = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class TokenCache {
+        private boolean enabled = true;
+        private long maxSize = 10_000;
+        private Duration maxTtl = Duration.ofMinutes(15);
+    }
+
+    @Getter
+    @Setter
+    public static class Login {
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 100;
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Password {
+        // 0 calibrates the strength at startup to targetHashTime
+        private int bcryptStrength = 0;
+        private Duration targetHashTime = Duration.ofMillis(250);
+    }
+
+    @Getter
+    @Setter
+    public static class LoginActivity {
+        private int flushThreshold = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class LoginLimiter {
+        private Duration window = Duration.ofMinutes(15);
+        // reaching it also locks the account in the database
+        private int maxFailuresPerUsername = 5;
+        private int maxFailuresPerIp = 50;
+        private int maxKeys = 100_000;
+        // how long that lock lasts; zero keeps the account locked until an admin unlocks it
+        private Duration lockDuration = Duration.ofMinutes(30);
+    }
 }
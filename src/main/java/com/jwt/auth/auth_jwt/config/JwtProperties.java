@@ -10,14 +10,32 @@ import org.springframework.context.annotation.Configuration;
 @Getter
 @Setter
 public class JwtProperties {
+    private String algorithm = "HS512";
     private String secret;
+    private String keyId;
+    // file: or classpath: locations of PEM (PKCS#8 / X.509) keys for RS*, PS*, ES* and EdDSA
+    private String privateKey;
+    private String publicKey;
+    // generate a throwaway key pair when none is configured; tokens then die with the node, so local use only
+    private boolean ephemeralKeys;
     private String issuer;
     private Token accessToken;
     private Token refreshToken;
+    private boolean statelessAuthentication;
+    private KeyRing keyRing = new KeyRing();
 
     @Getter
     @Setter
     public static class Token {
         private long expiration;
     }
+
+    @Getter
+    @Setter
+    public static class KeyRing {
+        // JWK Set with kid and alg on every key; takes precedence over algorithm/secret/private-key
+        private String location;
+        // defaults to the first private or secret key in the set
+        private String signingKeyId;
+    }
 }
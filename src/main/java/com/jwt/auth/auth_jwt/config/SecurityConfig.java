@@ -1,15 +1,36 @@
 package com.jwt.auth.auth_jwt.config;
 
+import com.jwt.auth.auth_jwt.security.AuthorityBits;
+import com.jwt.auth.auth_jwt.security.BitwiseMethodSecurityExpressionHandler;
 import com.jwt.auth.auth_jwt.security.CustomUserDetailsService;
 import com.jwt.auth.auth_jwt.security.JwtAuthenticationEntryPoint;
 import com.jwt.auth.auth_jwt.security.JwtAuthenticationFilter;
+import com.jwt.auth.auth_jwt.security.LoginAuthenticationProvider;
+import com.jwt.auth.auth_jwt.security.LoginExecutor;
+import com.jwt.auth.auth_jwt.security.LoginPasswordEncoder;
+import com.jwt.auth.auth_jwt.security.PasswordRehashService;
+import com.jwt.auth.auth_jwt.security.PermissionAuthorizationManager;
+import com.jwt.auth.auth_jwt.security.RequiresPermission;
+import com.jwt.auth.auth_jwt.security.UserPermissionEvaluator;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.method.AuthorizationInterceptorsOrder;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.core.GrantedAuthorityDefaults;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -35,12 +56,37 @@ public class SecurityConfig {
     private final CustomUserDetailsService customUserDetailsService;
     private final PasswordEncoder passwordEncoder;
     private final AppProperties appProperties;
+    private final PasswordRehashService passwordRehashService;
+    private final LoginExecutor loginExecutor;
+
+    @Bean
+    static MethodSecurityExpressionHandler methodSecurityExpressionHandler(AuthorityBits authorityBits,
+            ObjectProvider<RoleHierarchy> roleHierarchy, ObjectProvider<GrantedAuthorityDefaults> grantedAuthorityDefaults) {
+        BitwiseMethodSecurityExpressionHandler handler = new BitwiseMethodSecurityExpressionHandler(authorityBits);
+        handler.setPermissionEvaluator(new UserPermissionEvaluator(authorityBits));
+        // what Spring applies to its own default handler
+        roleHierarchy.ifAvailable(handler::setRoleHierarchy);
+        grantedAuthorityDefaults.ifAvailable(defaults -> handler.setDefaultRolePrefix(defaults.getRolePrefix()));
+        return handler;
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor requiresPermissionAuthorizationAdvisor(PermissionAuthorizationManager permissionAuthorizationManager) {
+        ComposablePointcut pointcut = new ComposablePointcut(AnnotationMatchingPointcut.forClassAnnotation(RequiresPermission.class))
+                .union(AnnotationMatchingPointcut.forMethodAnnotation(RequiresPermission.class));
+        AuthorizationManagerBeforeMethodInterceptor interceptor =
+                new AuthorizationManagerBeforeMethodInterceptor(pointcut, permissionAuthorizationManager);
+        interceptor.setOrder(AuthorizationInterceptorsOrder.PRE_AUTHORIZE.getOrder() + 1);
+        return interceptor;
+    }
 
     @Bean
     public AuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+        DaoAuthenticationProvider authProvider = new LoginAuthenticationProvider();
         authProvider.setUserDetailsService(customUserDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setPasswordEncoder(new LoginPasswordEncoder(passwordEncoder, loginExecutor));
+        authProvider.setUserDetailsPasswordService(passwordRehashService);
         return authProvider;
     }
 
@@ -57,6 +103,7 @@ public class SecurityConfig {
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(appProperties.getSecurity().getPublicEndpoints().toArray(new String[0]))
                         .permitAll()
                         .anyRequest().authenticated())
@@ -0,0 +1,72 @@
+package com.jwt.auth.auth_jwt.controller;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.dto.response.ApiBaseResponse;
+import com.jwt.auth.auth_jwt.security.RequiresPermission;
+import com.jwt.auth.auth_jwt.security.RoleCatalog;
+import com.jwt.auth.auth_jwt.service.AuthService;
+import com.jwt.auth.auth_jwt.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+@Tag(name = "Administration", description = "Admin tooling APIs")
+public class AdminController {
+
+    private final UserService userService;
+    private final RoleCatalog roleCatalog;
+    private final AuthService authService;
+    private final AppProperties appProperties;
+
+    @GetMapping(value = "/users/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export users", description = "Stream all users with roles and permissions as NDJSON (Admin only)")
+    public WebAsyncTask<Void> exportUsers(HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"");
+        // its own timeout, so the global async timeout can stay short for every other endpoint
+        return new WebAsyncTask<>(appProperties.getExport().getTimeout().toMillis(), () -> {
+            userService.exportUsers(response.getOutputStream());
+            return null;
+        });
+    }
+
+    @PostMapping("/roles/refresh")
+    @RequiresPermission("ROLE_WRITE")
+    @Operation(summary = "Refresh role catalog", description = "Reload roles and permissions from the database (requires ROLE_WRITE)")
+    public ResponseEntity<ApiBaseResponse<Void>> refreshRoleCatalog() {
+        roleCatalog.refresh();
+        return ResponseEntity.ok(ApiBaseResponse.success(null, "Role catalog refreshed"));
+    }
+
+    @DeleteMapping("/users/{userId}/sessions")
+    @RequiresPermission("USER_WRITE")
+    @Operation(summary = "Revoke user sessions", description = "Revoke every refresh token of a user (requires USER_WRITE)")
+    public ResponseEntity<ApiBaseResponse<Void>> revokeUserSessions(@PathVariable Long userId) {
+        int revoked = authService.revokeSessions(userId);
+        return ResponseEntity.ok(ApiBaseResponse.success(null, "Revoked " + revoked + " sessions"));
+    }
+
+    @DeleteMapping("/users/{userId}/lock")
+    @RequiresPermission("USER_WRITE")
+    @Operation(summary = "Unlock user", description = "Unlock an account locked after repeated failed logins (requires USER_WRITE)")
+    public ResponseEntity<ApiBaseResponse<Void>> unlockUser(@PathVariable Long userId) {
+        authService.unlockAccount(userId);
+        return ResponseEntity.ok(ApiBaseResponse.success(null, "Account unlocked"));
+    }
+}
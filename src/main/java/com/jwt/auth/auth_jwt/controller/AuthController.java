@@ -8,14 +8,20 @@ import com.jwt.auth.auth_jwt.dto.response.ApiBaseResponse;
 import com.jwt.auth.auth_jwt.dto.response.JwtAuthenticationResponse;
 import com.jwt.auth.auth_jwt.dto.response.TokenRefreshResponse;
 import com.jwt.auth.auth_jwt.entity.User;
+import com.jwt.auth.auth_jwt.security.UserPrincipal;
 import com.jwt.auth.auth_jwt.service.AuthService;
+import com.jwt.auth.auth_jwt.utils.Constants;
+import com.jwt.auth.auth_jwt.utils.TokenUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -33,8 +39,8 @@ public class AuthController {
     @PostMapping("/login")
     @Operation(summary = "Login user", description = "Authenticate user and return value token")
     public ResponseEntity<ApiBaseResponse<JwtAuthenticationResponse>> authenticateUser(
-            @Valid @RequestBody LoginRequest loginRequest) {
-        return ResponseEntity.ok(ApiBaseResponse.success(authService.login(loginRequest)));
+            @Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        return ResponseEntity.ok(ApiBaseResponse.success(authService.login(loginRequest, request.getRemoteAddr())));
     }
 
     @PostMapping("/register")
@@ -56,9 +62,20 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    @Operation(summary = "Logout user", description = "Revoke refresh token")
-    public ResponseEntity<ApiBaseResponse<Void>> logout(@Valid @RequestBody LogOutRequest logOutRequest) {
-        authService.logout(logOutRequest.getRefreshToken());
+    @Operation(summary = "Logout user", description = "Revoke refresh token and the current access token")
+    public ResponseEntity<ApiBaseResponse<Void>> logout(
+            @Valid @RequestBody LogOutRequest logOutRequest,
+            @RequestHeader(value = Constants.AUTHORIZATION_HEADER, required = false) String authorization) {
+        authService.logout(logOutRequest.getRefreshToken(), TokenUtils.resolveBearerToken(authorization));
         return ResponseEntity.ok(ApiBaseResponse.success(null, "Log out successful"));
     }
+
+    @PostMapping("/logout-all")
+    @Operation(summary = "Logout everywhere", description = "Revoke every refresh token of the current user")
+    public ResponseEntity<ApiBaseResponse<Void>> logoutAll(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @RequestHeader(value = Constants.AUTHORIZATION_HEADER, required = false) String authorization) {
+        int revoked = authService.logoutAll(currentUser.getId(), TokenUtils.resolveBearerToken(authorization));
+        return ResponseEntity.ok(ApiBaseResponse.success(null, "Revoked " + revoked + " sessions"));
+    }
 }
@@ -0,0 +1,40 @@
+package com.jwt.auth.auth_jwt.controller;
+
+import com.jwt.auth.auth_jwt.security.JwtSigningKeys;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Keys", description = "Public keys for verifying access tokens")
+public class JwksController {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(15)).cachePublic();
+
+    private final JwtSigningKeys jwtSigningKeys;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "JSON Web Key Set", description = "Public keys resource servers use to verify access tokens offline")
+    public ResponseEntity<byte[]> jwks(WebRequest request) {
+        String eTag = jwtSigningKeys.getJwksETag();
+        // handles lists and weak validators in If-None-Match
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CACHE_CONTROL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jwtSigningKeys.getJwks());
+    }
+}
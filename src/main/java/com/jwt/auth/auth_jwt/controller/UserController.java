@@ -1,6 +1,7 @@
 package com.jwt.auth.auth_jwt.controller;
 
 import com.jwt.auth.auth_jwt.dto.response.ApiBaseResponse;
+import com.jwt.auth.auth_jwt.dto.response.CursorPageResponse;
 import com.jwt.auth.auth_jwt.dto.response.UserResponse;
 import com.jwt.auth.auth_jwt.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,10 +11,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/v1/users")
 @RequiredArgsConstructor
@@ -27,8 +27,13 @@ public class UserController {
 //    @PreAuthorize("hasRole('USER') and hasRole('ADMIN')")
 //    @PreAuthorize("!hasRole('USER')")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Get all users", description = "Retrieve all users with roles and permissions (Admin only)")
-    public ResponseEntity<ApiBaseResponse<List<UserResponse>>> getAllUsers() {
-        return ResponseEntity.ok(ApiBaseResponse.success(userService.getAllUsers()));
+    @Operation(summary = "Get all users",
+            description = "Retrieve users with roles and permissions, one keyset page at a time (Admin only)")
+    public ResponseEntity<ApiBaseResponse<CursorPageResponse<UserResponse>>> getAllUsers(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) Boolean verified) {
+        return ResponseEntity.ok(ApiBaseResponse.success(userService.getUsers(cursor, size, role, verified)));
     }
 }
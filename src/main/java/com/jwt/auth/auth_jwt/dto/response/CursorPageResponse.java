@@ -0,0 +1,15 @@
+package com.jwt.auth.auth_jwt.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CursorPageResponse<T> {
+    private List<T> items;
+    private int size;
+    private boolean hasNext;
+    private Long nextCursor;
+}
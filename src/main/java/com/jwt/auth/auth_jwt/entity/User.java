@@ -48,6 +48,10 @@ public class User {
     @Builder.Default
     private boolean isAccountLocked = false;
 
+    // null while locked means the lock was set by an admin and does not expire
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
     @Column(name = "failed_login_attempts")
     @Builder.Default
     private int failedLoginAttempts = 0;
@@ -55,7 +59,7 @@ public class User {
     @Column(name = "last_failed_login_at")
     private LocalDateTime lastFailedLoginAt;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"), inverseJoinColumns = @JoinColumn(name = "role_id"))
     private Set<Role> roles = new HashSet<>();
 
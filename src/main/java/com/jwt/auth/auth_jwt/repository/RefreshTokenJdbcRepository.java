@@ -0,0 +1,92 @@
+package com.jwt.auth.auth_jwt.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public class RefreshTokenJdbcRepository {
+
+    private static final String ROTATE_SQL = """
+            WITH rotated AS (
+                UPDATE refresh_tokens
+                SET is_revoked = TRUE, revoked_at = ?, rotated_at = ?
+                WHERE token_hash = ? AND is_revoked = FALSE AND expires_at > ?
+                RETURNING user_id, family_id
+            )
+            INSERT INTO refresh_tokens (token_hash, user_id, family_id, expires_at, is_revoked, created_at)
+            SELECT ?, user_id, family_id, ?, FALSE, ?
+            FROM rotated
+            RETURNING user_id
+            """;
+
+    private static final String REVOKE_OLDEST_ACTIVE_SQL = """
+            UPDATE refresh_tokens
+            SET is_revoked = TRUE, revoked_at = ?
+            WHERE id IN (SELECT id
+                         FROM refresh_tokens
+                         WHERE user_id = ? AND is_revoked = FALSE AND expires_at > ?
+                         ORDER BY created_at DESC, id DESC
+                         OFFSET ?)
+            """;
+
+    // two-key form, which never collides with single-key locks such as the cleanup lock
+    private static final String LOCK_USER_SESSIONS_SQL = "SELECT pg_advisory_xact_lock(?, ?)";
+    private static final int USER_SESSIONS_LOCK_SPACE = 0x72745F73;
+
+    private static final String PURGE_SQL = """
+            DELETE FROM refresh_tokens
+            WHERE id IN (SELECT id
+                         FROM refresh_tokens
+                         WHERE expires_at < ?
+                            OR (is_revoked = TRUE AND revoked_at < ?)
+                         LIMIT ? FOR UPDATE SKIP LOCKED)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RefreshTokenJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Revokes the live, unexpired token with {@code presentedHash} and inserts its successor in the same
+     * family with a single statement. Returns the owning user id, or empty when nothing was rotated
+     * (unknown, already revoked or expired token).
+     */
+    public Optional<Long> rotate(byte[] presentedHash, byte[] newHash, LocalDateTime now, LocalDateTime newExpiresAt) {
+        return jdbcTemplate.query(ROTATE_SQL, (rs, rowNum) -> rs.getLong("user_id"),
+                        now, now, presentedHash, now, newHash, newExpiresAt, now)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Revokes every active token of the user except the {@code keep} most recently created ones.
+     */
+    public int revokeOldestActive(Long userId, int keep, LocalDateTime now) {
+        return jdbcTemplate.update(REVOKE_OLDEST_ACTIVE_SQL, now, userId, now, keep);
+    }
+
+    /**
+     * Serializes session bookkeeping for the user until the transaction ends; must be called inside a transaction.
+     */
+    public void lockUserSessions(Long userId) {
+        jdbcTemplate.query(LOCK_USER_SESSIONS_SQL, rs -> {
+        }, USER_SESSIONS_LOCK_SPACE, Long.hashCode(userId));
+    }
+
+    /**
+     * Takes a transaction-scoped advisory lock; must be called inside a transaction.
+     */
+    public boolean tryAdvisoryLock(long key) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, key));
+    }
+
+    public int purgeBatch(LocalDateTime expiredBefore, LocalDateTime revokedBefore, int batchSize) {
+        return jdbcTemplate.update(PURGE_SQL, expiredBefore, revokedBefore, batchSize);
+    }
+}
@@ -10,11 +10,12 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
 
     List<RefreshToken> findAllByUser(User user);
 
@@ -23,7 +24,9 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
 
     @Modifying
     @Query("UPDATE RefreshToken rt SET rt.isRevoked = true, rt.revokedAt = CURRENT_TIMESTAMP WHERE rt.user.id = :userId AND rt.isRevoked = false")
-    void revokeAllUserTokens(Long userId);
+    int revokeAllUserTokens(Long userId);
 
-    void deleteByExpiresAtBefore(LocalDateTime now);
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.isRevoked = true, rt.revokedAt = :revokedAt WHERE rt.familyId = :familyId AND rt.isRevoked = false")
+    int revokeFamily(UUID familyId, LocalDateTime revokedAt);
 }
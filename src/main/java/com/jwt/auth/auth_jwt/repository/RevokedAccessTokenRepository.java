@@ -0,0 +1,34 @@
+package com.jwt.auth.auth_jwt.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.function.BiConsumer;
+
+@Repository
+public class RevokedAccessTokenRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RevokedAccessTokenRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void save(String jti, LocalDateTime expiresAt) {
+        jdbcTemplate.update("INSERT INTO revoked_access_tokens (jti, expires_at) VALUES (?, ?) ON CONFLICT (jti) DO NOTHING",
+                jti, expiresAt);
+    }
+
+    public void forEachActive(LocalDateTime now, BiConsumer<String, LocalDateTime> consumer) {
+        jdbcTemplate.query("SELECT jti, expires_at FROM revoked_access_tokens WHERE expires_at > ?",
+                rs -> {
+                    consumer.accept(rs.getString("jti"), rs.getTimestamp("expires_at").toLocalDateTime());
+                }, now);
+    }
+
+    public int deleteExpired(LocalDateTime now) {
+        return jdbcTemplate.update("DELETE FROM revoked_access_tokens WHERE expires_at <= ?", now);
+    }
+}
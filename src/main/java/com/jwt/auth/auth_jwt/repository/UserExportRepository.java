@@ -0,0 +1,81 @@
+package com.jwt.auth.auth_jwt.repository;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.dto.response.UserResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.function.Consumer;
+
+@Repository
+public class UserExportRepository {
+
+    private static final String EXPORT_SQL = """
+            SELECT u.id, u.username, u.email, u.first_name, u.last_name, u.is_account_locked,
+                   r.name AS role_name
+            FROM users u
+                     LEFT JOIN user_roles ur ON ur.user_id = u.id
+                     LEFT JOIN roles r ON r.id = ur.role_id
+            ORDER BY u.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserExportRepository(DataSource dataSource, AppProperties appProperties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(appProperties.getExport().getFetchSize());
+    }
+
+    /**
+     * Streams every user in id order. Must run inside a transaction: PostgreSQL only honours the
+     * fetch size (server-side cursor) when auto-commit is off.
+     */
+    public void streamUsers(Consumer<UserResponse> consumer) {
+        UserRowAggregator aggregator = new UserRowAggregator(consumer);
+        jdbcTemplate.query(EXPORT_SQL, aggregator);
+        aggregator.flush();
+    }
+
+    private static final class UserRowAggregator implements RowCallbackHandler {
+
+        private final Consumer<UserResponse> consumer;
+        private UserResponse current;
+
+        private UserRowAggregator(Consumer<UserResponse> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.getId() != id) {
+                flush();
+                current = UserResponse.builder()
+                        .id(id)
+                        .username(rs.getString("username"))
+                        .email(rs.getString("email"))
+                        .firstName(rs.getString("first_name"))
+                        .lastName(rs.getString("last_name"))
+                        .enabled(!rs.getBoolean("is_account_locked"))
+                        .roles(new HashSet<>())
+                        .build();
+            }
+            String roleName = rs.getString("role_name");
+            if (roleName != null) {
+                current.getRoles().add(roleName);
+            }
+        }
+
+        private void flush() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.jwt.auth.auth_jwt.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Batched writes to {@code users} that bypass Hibernate; callers must evict affected principals
+ * from {@link com.jwt.auth.auth_jwt.security.UserPrincipalCache} themselves.
+ */
+@Repository
+public class UserJdbcRepository {
+
+    // guarded by the current hash so a password changed in the meantime is never overwritten
+    private static final String UPDATE_PASSWORD_SQL =
+            "UPDATE users SET password = ?, updated_at = ? WHERE id = ? AND password = ?";
+
+    // never shortens a lock that is still running, including one set by an admin
+    private static final String LOCK_ACCOUNT_SQL = """
+            UPDATE users
+            SET is_account_locked = TRUE, locked_until = ?, updated_at = ?
+            WHERE id = ? AND (is_account_locked IS NOT TRUE OR locked_until <= ?)
+            """;
+
+    private static final String UNLOCK_ACCOUNT_SQL = """
+            UPDATE users
+            SET is_account_locked = FALSE, locked_until = NULL, failed_login_attempts = 0, updated_at = ?
+            WHERE id = ?
+            """;
+
+    private static final String RECORD_LOGIN_ACTIVITY_SQL = """
+            UPDATE users
+            SET last_login_at         = COALESCE(?, last_login_at),
+                failed_login_attempts = CASE WHEN ? THEN ? ELSE COALESCE(failed_login_attempts, 0) + ? END,
+                last_failed_login_at  = COALESCE(?, last_failed_login_at)
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public int[] updatePasswords(Collection<PasswordUpdate> updates, LocalDateTime now) {
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        List<Object[]> args = updates.stream()
+                .map(update -> new Object[]{update.newHash(), updatedAt, update.userId(), update.currentHash()})
+                .toList();
+        return jdbcTemplate.batchUpdate(UPDATE_PASSWORD_SQL, args);
+    }
+
+    /**
+     * Locks the account until {@code lockedUntil}, or until an admin unlocks it when that is null.
+     */
+    public boolean lockAccount(Long userId, LocalDateTime lockedUntil, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.update(LOCK_ACCOUNT_SQL, toTimestamp(lockedUntil), timestamp, userId, timestamp) > 0;
+    }
+
+    public boolean unlockAccount(Long userId, LocalDateTime now) {
+        return jdbcTemplate.update(UNLOCK_ACCOUNT_SQL, Timestamp.valueOf(now), userId) > 0;
+    }
+
+    public void recordLoginActivity(Collection<LoginActivity> activities) {
+        List<Object[]> args = activities.stream()
+                .map(activity -> new Object[]{
+                        toTimestamp(activity.lastLoginAt()),
+                        activity.resetFailures(),
+                        activity.failures(),
+                        activity.failures(),
+                        toTimestamp(activity.lastFailureAt()),
+                        activity.userId()})
+                .toList();
+        jdbcTemplate.batchUpdate(RECORD_LOGIN_ACTIVITY_SQL, args);
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value == null ? null : Timestamp.valueOf(value);
+    }
+
+    /**
+     * Coalesced login outcomes of one user. With {@code resetFailures} the counter is set to
+     * {@code failures} (those seen after the last success), otherwise incremented by it.
+     */
+    public record LoginActivity(Long userId, LocalDateTime lastLoginAt, boolean resetFailures, int failures,
+                                LocalDateTime lastFailureAt) {
+
+        public LoginActivity followedBy(LoginActivity later) {
+            return new LoginActivity(userId,
+                    later.lastLoginAt() != null ? later.lastLoginAt() : lastLoginAt,
+                    resetFailures || later.resetFailures(),
+                    later.resetFailures() ? later.failures() : failures + later.failures(),
+                    later.lastFailureAt() != null ? later.lastFailureAt() : lastFailureAt);
+        }
+    }
+
+    public record PasswordUpdate(Long userId, String currentHash, String newHash) {
+    }
+}
@@ -1,9 +1,16 @@
 package com.jwt.auth.auth_jwt.repository;
 
 import com.jwt.auth.auth_jwt.entity.User;
+import com.jwt.auth.auth_jwt.repository.projection.UserAuthority;
+import com.jwt.auth.auth_jwt.repository.projection.UserSummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,6 +20,33 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesById(Long id);
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesByUsername(String username);
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesByEmail(String email);
+
+    @Query("""
+            SELECT new com.jwt.auth.auth_jwt.repository.projection.UserSummary(
+                u.id, u.username, u.email, u.firstName, u.lastName, u.isAccountLocked)
+            FROM User u
+            WHERE u.id > :cursor
+              AND (:verified IS NULL OR u.isEmailVerified = :verified)
+              AND (:role IS NULL OR EXISTS (SELECT 1 FROM u.roles r WHERE r.name = :role))
+            ORDER BY u.id
+            """)
+    List<UserSummary> findSummariesAfter(Long cursor, Boolean verified, String role, Limit limit);
+
+    @Query("""
+            SELECT new com.jwt.auth.auth_jwt.repository.projection.UserAuthority(u.id, r.name)
+            FROM User u JOIN u.roles r
+            WHERE u.id IN :userIds
+            """)
+    List<UserAuthority> findAuthoritiesByUserIds(Collection<Long> userIds);
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
@@ -0,0 +1,7 @@
+package com.jwt.auth.auth_jwt.repository.projection;
+
+public record UserAuthority(
+        Long userId,
+        String roleName
+) {
+}
@@ -0,0 +1,11 @@
+package com.jwt.auth.auth_jwt.repository.projection;
+
+public record UserSummary(
+        Long id,
+        String username,
+        String email,
+        String firstName,
+        String lastName,
+        boolean accountLocked
+) {
+}
@@ -0,0 +1,107 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.repository.RevokedAccessTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revoked access token ids, checked on every authenticated request without I/O. The Bloom filter
+ * answers the common "not revoked" case; hits are confirmed against the exact map. Revocations are
+ * persisted so a restarted node rebuilds the same state.
+ */
+@Slf4j
+@Component
+public class AccessTokenDenylist {
+
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+    private final AuthEventPublisher authEventPublisher;
+    private final AppProperties.AccessTokenDenylist config;
+    private final Map<String, Instant> expiryByJti = new ConcurrentHashMap<>();
+
+    // serializes writers against rebuilds; readers only see the volatile filter
+    private final Lock writeLock = new ReentrantLock();
+
+    private volatile BloomFilter filter;
+
+    public AccessTokenDenylist(RevokedAccessTokenRepository revokedAccessTokenRepository,
+                               AuthEventPublisher authEventPublisher, AppProperties appProperties) {
+        this.revokedAccessTokenRepository = revokedAccessTokenRepository;
+        this.authEventPublisher = authEventPublisher;
+        this.config = appProperties.getAccessTokenDenylist();
+        this.filter = newFilter(0);
+    }
+
+    @PostConstruct
+    void load() {
+        revokedAccessTokenRepository.forEachActive(LocalDateTime.now(),
+                (jti, expiresAt) -> add(jti, expiresAt.atZone(ZoneId.systemDefault()).toInstant()));
+        log.info("Loaded {} revoked access tokens into the denylist", expiryByJti.size());
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        Instant expiresAt = expiryByJti.get(jti);
+        return expiresAt != null && expiresAt.isAfter(Instant.now());
+    }
+
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        revokedAccessTokenRepository.save(jti, LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()));
+        add(jti, expiresAt);
+        authEventPublisher.accessTokenRevoked(jti, expiresAt);
+    }
+
+    void add(String jti, Instant expiresAt) {
+        writeLock.lock();
+        try {
+            expiryByJti.put(jti, expiresAt);
+            filter.put(jti);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.access-token-denylist.cleanup-interval:PT5M}",
+            initialDelayString = "${app.access-token-denylist.cleanup-interval:PT5M}")
+    public void cleanup() {
+        Instant now = Instant.now();
+        int before = expiryByJti.size();
+        expiryByJti.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        int removed = before - expiryByJti.size();
+        if (removed > 0) {
+            rebuildFilter();
+            revokedAccessTokenRepository.deleteExpired(LocalDateTime.ofInstant(now, ZoneId.systemDefault()));
+            log.debug("Dropped {} expired entries from the access token denylist", removed);
+        }
+    }
+
+    private void rebuildFilter() {
+        writeLock.lock();
+        try {
+            BloomFilter next = newFilter(expiryByJti.size());
+            expiryByJti.keySet().forEach(next::put);
+            filter = next;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private BloomFilter newFilter(int entries) {
+        return new BloomFilter(Math.max(config.getExpectedInsertions(), entries * 2L), config.getFalsePositiveRate());
+    }
+}
@@ -0,0 +1,145 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.regex.Pattern;
+
+/**
+ * Applies invalidation events published by other nodes. Holds one dedicated connection outside the
+ * pool; after every (re)connect every local cache is rebuilt since notifications sent meanwhile are lost.
+ */
+@Slf4j
+@Component
+public class AuthEventListener implements SmartLifecycle {
+
+    private static final int POLL_TIMEOUT_MS = 5_000;
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]{0,62}");
+
+    private final DataSourceProperties dataSourceProperties;
+    private final AppProperties.Events config;
+    private final AuthEventPublisher authEventPublisher;
+    private final UserPrincipalCache userPrincipalCache;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final RoleCatalog roleCatalog;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AuthEventListener(DataSourceProperties dataSourceProperties, AppProperties appProperties,
+                             AuthEventPublisher authEventPublisher, UserPrincipalCache userPrincipalCache,
+                             AccessTokenDenylist accessTokenDenylist, RoleCatalog roleCatalog,
+                             LoginAttemptLimiter loginAttemptLimiter) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.config = appProperties.getEvents();
+        if (config.isEnabled() && !CHANNEL_NAME.matcher(config.getChannel()).matches()) {
+            throw new IllegalArgumentException("app.events.channel must be a plain identifier: " + config.getChannel());
+        }
+        this.authEventPublisher = authEventPublisher;
+        this.userPrincipalCache = userPrincipalCache;
+        this.accessTokenDenylist = accessTokenDenylist;
+        this.roleCatalog = roleCatalog;
+        this.loginAttemptLimiter = loginAttemptLimiter;
+    }
+
+    @Override
+    public void start() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::listen, "auth-event-listener");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    // quoted so the name keeps its case, as pg_notify uses it verbatim
+                    statement.execute("LISTEN \"" + config.getChannel() + "\"");
+                }
+                // also on the first connect: events sent before the subscription existed were missed
+                resync();
+                log.info("Listening for auth events on channel {}", config.getChannel());
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException ex) {
+                if (!running) {
+                    return;
+                }
+                // a failed resync counts too, otherwise this thread would end and stop applying events for good
+                log.warn("Auth event listener failed, retrying in {}: {}", config.getReconnectDelay(), ex.getMessage());
+                try {
+                    Thread.sleep(config.getReconnectDelay().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    void apply(String payload) {
+        String[] parts = payload.split("\\" + AuthEventPublisher.SEPARATOR, -1);
+        if (parts.length < 3 || authEventPublisher.getNodeId().equals(parts[0])) {
+            return;
+        }
+        try {
+            switch (parts[1]) {
+                case AuthEventPublisher.USER_CHANGED -> userPrincipalCache.evict(Long.parseLong(parts[2]));
+                case AuthEventPublisher.ROLES_CHANGED -> {
+                    userPrincipalCache.evictAll();
+                    roleCatalog.refresh();
+                }
+                case AuthEventPublisher.ACCESS_TOKEN_REVOKED ->
+                        accessTokenDenylist.add(parts[2], Instant.ofEpochSecond(Long.parseLong(parts[3])));
+                // the login itself may contain the separator, so take the rest of the payload verbatim
+                case AuthEventPublisher.LOGIN_FAILURES_RESET ->
+                        loginAttemptLimiter.reset(payload.substring(parts[0].length() + parts[1].length() + 2));
+                default -> log.debug("Ignoring unknown auth event {}", parts[1]);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not apply auth event '{}'", payload, ex);
+        }
+    }
+
+    private void resync() {
+        userPrincipalCache.evictAll();
+        roleCatalog.refresh();
+        accessTokenDenylist.load();
+    }
+}
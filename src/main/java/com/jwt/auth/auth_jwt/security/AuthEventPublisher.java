@@ -0,0 +1,90 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Publishes cache invalidation events on a PostgreSQL NOTIFY channel. Inside a transaction the
+ * notification is sent after commit and dropped on rollback, matching the change it describes; it
+ * runs on its own pooled connection so a failed NOTIFY can never abort the caller's transaction.
+ */
+@Slf4j
+@Component
+public class AuthEventPublisher {
+
+    static final String USER_CHANGED = "user";
+    static final String ROLES_CHANGED = "roles";
+    static final String ACCESS_TOKEN_REVOKED = "jti";
+    static final String LOGIN_FAILURES_RESET = "login";
+    static final char SEPARATOR = '|';
+
+    @Getter
+    private final String nodeId = UUID.randomUUID().toString();
+    private final DataSource dataSource;
+    private final AppProperties.Events config;
+
+    public AuthEventPublisher(DataSource dataSource, AppProperties appProperties) {
+        this.dataSource = dataSource;
+        this.config = appProperties.getEvents();
+    }
+
+    public void userChanged(Long userId) {
+        publish(USER_CHANGED, userId.toString());
+    }
+
+    public void rolesChanged() {
+        publish(ROLES_CHANGED, "");
+    }
+
+    public void accessTokenRevoked(String jti, Instant expiresAt) {
+        publish(ACCESS_TOKEN_REVOKED, jti + SEPARATOR + expiresAt.getEpochSecond());
+    }
+
+    public void loginFailuresReset(String usernameOrEmail) {
+        publish(LOGIN_FAILURES_RESET, usernameOrEmail);
+    }
+
+    private void publish(String type, String body) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        String payload = nodeId + SEPARATOR + type + SEPARATOR + body;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(type, payload);
+                }
+            });
+        } else {
+            send(type, payload);
+        }
+    }
+
+    // bypasses DataSourceUtils on purpose: after commit the transaction's connection is still bound to the thread
+    private void send(String type, String payload) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, config.getChannel());
+            statement.setString(2, payload);
+            statement.execute();
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (SQLException ex) {
+            // other nodes converge through their own TTLs and scheduled refreshes
+            log.warn("Could not publish {} event: {}", type, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.utils.Constants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+
+/**
+ * Maps role and permission names to bit positions so a principal's authorities fit in a single {@code long}.
+ * Positions are handed out on first use and never reassigned, so masks stay valid for the life of the process.
+ * Once all positions are taken, further authorities get none; masks holding one carry {@link #OVERFLOW} and
+ * those authorities are checked by name.
+ */
+@Slf4j
+@Component
+public class AuthorityBits {
+
+    public static final long OVERFLOW = Long.MIN_VALUE;
+
+    private static final int CAPACITY = Long.SIZE - 1;
+    private static final int NO_POSITION = -1;
+
+    private final Map<String, Integer> positions = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> names = new AtomicReferenceArray<>(CAPACITY);
+    private final AtomicInteger nextPosition = new AtomicInteger();
+    private final Map<Long, List<GrantedAuthority>> authoritiesByMask = new ConcurrentHashMap<>();
+
+    public AuthorityBits() {
+        maskOf(List.of(Constants.ROLE_USER, Constants.ROLE_ADMIN, Constants.ROLE_MODERATOR, Constants.ROLE_SUPER_ADMIN));
+    }
+
+    public long maskOf(Collection<String> authorities) {
+        long mask = 0L;
+        for (String authority : authorities) {
+            int position = positions.computeIfAbsent(authority, this::assignPosition);
+            mask |= position == NO_POSITION ? OVERFLOW : 1L << position;
+        }
+        return mask;
+    }
+
+    /**
+     * Bit test only; authorities without a position always answer {@code false}.
+     */
+    public boolean hasAuthority(long mask, String authority) {
+        Integer position = positions.get(authority);
+        return position != null && position != NO_POSITION && (mask & (1L << position)) != 0;
+    }
+
+    public boolean hasAuthority(UserPrincipal principal, String authority) {
+        Integer position = positions.get(authority);
+        if (position == null) {
+            return false;
+        }
+        if (position != NO_POSITION) {
+            return (principal.getAuthorityMask() & (1L << position)) != 0;
+        }
+        return (principal.getAuthorityMask() & OVERFLOW) != 0 && principal.hasAuthorityName(authority);
+    }
+
+    public boolean hasAnyAuthority(UserPrincipal principal, String... authorities) {
+        for (String authority : authorities) {
+            if (hasAuthority(principal, authority)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<GrantedAuthority> authoritiesOf(long mask, Collection<String> roles, Collection<String> permissions) {
+        if ((mask & OVERFLOW) == 0) {
+            return authoritiesByMask.computeIfAbsent(mask, this::buildAuthorities);
+        }
+        return Stream.concat(roles.stream(), permissions.stream())
+                .distinct()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
+    private int assignPosition(String authority) {
+        int position = nextPosition.getAndIncrement();
+        if (position >= CAPACITY) {
+            if (position == CAPACITY) {
+                log.warn("More than {} distinct authorities, checking {} and later ones by name", CAPACITY, authority);
+            }
+            return NO_POSITION;
+        }
+        names.set(position, authority);
+        return position;
+    }
+
+    private List<GrantedAuthority> buildAuthorities(long mask) {
+        List<GrantedAuthority> authorities = new ArrayList<>(Long.bitCount(mask));
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            authorities.add(new SimpleGrantedAuthority(names.get(Long.numberOfTrailingZeros(remaining))));
+        }
+        return List.copyOf(authorities);
+    }
+}
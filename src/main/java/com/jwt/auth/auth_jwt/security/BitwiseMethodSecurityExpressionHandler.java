@@ -0,0 +1,40 @@
+package com.jwt.auth.auth_jwt.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.security.access.expression.SecurityExpressionRoot;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+public class BitwiseMethodSecurityExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+
+    private final AuthorityBits authorityBits;
+
+    public BitwiseMethodSecurityExpressionHandler(AuthorityBits authorityBits) {
+        this.authorityBits = authorityBits;
+    }
+
+    @Override
+    public EvaluationContext createEvaluationContext(Supplier<Authentication> authentication, MethodInvocation mi) {
+        BitwiseMethodSecurityExpressionRoot root = new BitwiseMethodSecurityExpressionRoot(authentication, authorityBits);
+        SecurityExpressionRoot delegate = root.getDelegate();
+        delegate.setTrustResolver(getTrustResolver());
+        delegate.setPermissionEvaluator(getPermissionEvaluator());
+        root.setRoleHierarchy(getRoleHierarchy());
+        root.setDefaultRolePrefix(getDefaultRolePrefix());
+        root.setThis(mi.getThis());
+        Method method = mi.getThis() == null
+                ? mi.getMethod()
+                : AopUtils.getMostSpecificMethod(mi.getMethod(), AopProxyUtils.ultimateTargetClass(mi.getThis()));
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(
+                root, method, mi.getArguments(), getParameterNameDiscoverer());
+        context.setBeanResolver(getBeanResolver());
+        return context;
+    }
+}
@@ -0,0 +1,180 @@
+package com.jwt.auth.auth_jwt.security;
+
+import org.springframework.security.access.expression.SecurityExpressionRoot;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.StringUtils;
+
+import java.util.function.Supplier;
+
+/**
+ * Answers {@code hasRole}/{@code hasAuthority} checks for a {@link UserPrincipal} with bitwise tests on its
+ * authority mask and delegates everything else to the standard Spring Security expression root. With a role
+ * hierarchy every check is delegated, since the mask only holds the directly granted authorities.
+ */
+public class BitwiseMethodSecurityExpressionRoot implements MethodSecurityExpressionOperations {
+
+    private final SecurityExpressionRoot delegate;
+    private final AuthorityBits authorityBits;
+    private String defaultRolePrefix = "ROLE_";
+    private boolean bitwise = true;
+    private Object filterObject;
+    private Object returnObject;
+    private Object target;
+
+    public BitwiseMethodSecurityExpressionRoot(Supplier<Authentication> authentication, AuthorityBits authorityBits) {
+        this.delegate = new SecurityExpressionRoot(authentication) {
+        };
+        this.authorityBits = authorityBits;
+    }
+
+    SecurityExpressionRoot getDelegate() {
+        return delegate;
+    }
+
+    public void setDefaultRolePrefix(String defaultRolePrefix) {
+        delegate.setDefaultRolePrefix(defaultRolePrefix);
+        this.defaultRolePrefix = defaultRolePrefix;
+    }
+
+    public void setRoleHierarchy(RoleHierarchy roleHierarchy) {
+        delegate.setRoleHierarchy(roleHierarchy);
+        this.bitwise = roleHierarchy == null;
+    }
+
+    @Override
+    public Authentication getAuthentication() {
+        return delegate.getAuthentication();
+    }
+
+    public Object getPrincipal() {
+        return delegate.getPrincipal();
+    }
+
+    @Override
+    public boolean hasAuthority(String authority) {
+        UserPrincipal principal = userPrincipal();
+        return principal != null
+                ? authorityBits.hasAuthority(principal, authority)
+                : delegate.hasAuthority(authority);
+    }
+
+    @Override
+    public boolean hasAnyAuthority(String... authorities) {
+        UserPrincipal principal = userPrincipal();
+        return principal != null
+                ? authorityBits.hasAnyAuthority(principal, authorities)
+                : delegate.hasAnyAuthority(authorities);
+    }
+
+    @Override
+    public boolean hasRole(String role) {
+        UserPrincipal principal = userPrincipal();
+        return principal != null
+                ? authorityBits.hasAuthority(principal, withRolePrefix(role))
+                : delegate.hasRole(role);
+    }
+
+    @Override
+    public boolean hasAnyRole(String... roles) {
+        UserPrincipal principal = userPrincipal();
+        if (principal == null) {
+            return delegate.hasAnyRole(roles);
+        }
+        for (String role : roles) {
+            if (authorityBits.hasAuthority(principal, withRolePrefix(role))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean permitAll() {
+        return true;
+    }
+
+    @Override
+    public boolean denyAll() {
+        return false;
+    }
+
+    @Override
+    public boolean isAnonymous() {
+        return delegate.isAnonymous();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return delegate.isAuthenticated();
+    }
+
+    @Override
+    public boolean isRememberMe() {
+        return delegate.isRememberMe();
+    }
+
+    @Override
+    public boolean isFullyAuthenticated() {
+        return delegate.isFullyAuthenticated();
+    }
+
+    @Override
+    public boolean hasPermission(Object target, Object permission) {
+        return delegate.hasPermission(target, permission);
+    }
+
+    @Override
+    public boolean hasPermission(Object targetId, String targetType, Object permission) {
+        return delegate.hasPermission(targetId, targetType, permission);
+    }
+
+    @Override
+    public void setFilterObject(Object filterObject) {
+        this.filterObject = filterObject;
+    }
+
+    @Override
+    public Object getFilterObject() {
+        return filterObject;
+    }
+
+    @Override
+    public void setReturnObject(Object returnObject) {
+        this.returnObject = returnObject;
+    }
+
+    @Override
+    public Object getReturnObject() {
+        return returnObject;
+    }
+
+    void setThis(Object target) {
+        this.target = target;
+    }
+
+    @Override
+    public Object getThis() {
+        return target;
+    }
+
+    private UserPrincipal userPrincipal() {
+        if (!bitwise) {
+            return null;
+        }
+        Authentication authentication = delegate.getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal;
+        }
+        return null;
+    }
+
+    // same rules as SecurityExpressionRoot
+    private String withRolePrefix(String role) {
+        if (role == null || !StringUtils.hasLength(defaultRolePrefix) || role.startsWith(defaultRolePrefix)) {
+            return role;
+        }
+        return defaultRolePrefix + role;
+    }
+}
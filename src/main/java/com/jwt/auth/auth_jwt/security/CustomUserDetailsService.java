@@ -7,28 +7,36 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final RoleCatalog roleCatalog;
+    private final AuthorityBits authorityBits;
 
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(usernameOrEmail)
-                .orElseGet(() -> userRepository.findByEmail(usernameOrEmail)
+        return userPrincipalCache.getByLogin(usernameOrEmail, this::findByUsernameOrEmail);
+    }
+
+    public UserPrincipal loadUserById(Long id) {
+        return userPrincipalCache.getById(id, this::findById);
+    }
+
+    private UserPrincipal findByUsernameOrEmail(String usernameOrEmail) {
+        User user = userRepository.findWithRolesByUsername(usernameOrEmail)
+                .orElseGet(() -> userRepository.findWithRolesByEmail(usernameOrEmail)
                         .orElseThrow(() -> new UsernameNotFoundException(
                                 "User not found with username or email : " + usernameOrEmail)));
-        return UserPrincipal.create(user);
+        return UserPrincipal.create(user, roleCatalog, authorityBits);
     }
 
-    @Transactional
-    public UserDetails loadUserById(Long id) {
-        User user = userRepository.findById(id).orElseThrow(
+    private UserPrincipal findById(Long id) {
+        User user = userRepository.findWithRolesById(id).orElseThrow(
                 () -> new UsernameNotFoundException("User not found with id : " + id));
-        return UserPrincipal.create(user);
+        return UserPrincipal.create(user, roleCatalog, authorityBits);
     }
 }
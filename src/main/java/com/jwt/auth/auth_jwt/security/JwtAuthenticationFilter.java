@@ -1,5 +1,8 @@
 package com.jwt.auth.auth_jwt.security;
 
+import com.jwt.auth.auth_jwt.config.JwtProperties;
+import com.jwt.auth.auth_jwt.utils.Constants;
+import com.jwt.auth.auth_jwt.utils.TokenUtils;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,19 +26,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
+    private final JwtProperties jwtProperties;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
-            String jwt = getJwtFromRequest(request);
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromJWT(jwt);
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            String jwt = TokenUtils.resolveBearerToken(request.getHeader(Constants.AUTHORIZATION_HEADER));
+            if (StringUtils.hasText(jwt)) {
+                JwtValidationResult result = tokenProvider.parseToken(jwt);
+                if (result.isValid()) {
+                    UserDetails userDetails = loadUser(result);
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                } else {
+                    log.debug("Rejected JWT for {}: {}", request.getRequestURI(), result.getFailure());
+                }
             }
         } catch (Exception ex) {
             log.error("Could not set user authentication in security context", ex);
@@ -43,11 +51,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private String getJwtFromRequest(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
+    private UserDetails loadUser(JwtValidationResult result) {
+        if (jwtProperties.isStatelessAuthentication()) {
+            UserPrincipal principal = tokenProvider.getUserPrincipal(result.getClaims());
+            if (principal != null) {
+                return principal;
+            }
         }
-        return null;
+        return customUserDetailsService.loadUserById(result.getUserId());
     }
 }
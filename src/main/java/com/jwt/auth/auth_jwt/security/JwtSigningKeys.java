@@ -0,0 +1,229 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.config.JwtProperties;
+import com.jwt.auth.auth_jwt.utils.PemUtils;
+import com.jwt.auth.auth_jwt.utils.TokenUtils;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.MacAlgorithm;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Key ring for access tokens: one current signing key and every key still accepted for verification,
+ * indexed by {@code kid}. The ring comes from the JWK Set at {@code jwt.key-ring.location}, reloaded on a
+ * schedule, or from the single key configured by {@code jwt.algorithm}. The JWKS document publishing
+ * the public half of asymmetric keys is serialized once per ring.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JwtSigningKeys {
+
+    private final JwtProperties jwtProperties;
+    private final ResourceLoader resourceLoader;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private volatile KeyRing keyRing;
+    private volatile JwtParser parser;
+
+    @PostConstruct
+    void init() throws IOException, GeneralSecurityException {
+        keyRing = StringUtils.hasText(jwtProperties.getKeyRing().getLocation())
+                ? loadKeyRing(read(jwtProperties.getKeyRing().getLocation()))
+                : loadSingleKey();
+        parser = Jwts.parser().keyLocator(header -> verificationKey(header.get("kid"))).build();
+        log.info("Signing access tokens with {} (kid {}), {} verification keys",
+                keyRing.signingKey().algorithm().getId(), keyRing.signingKey().keyId(), keyRing.verificationKeys().size());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.key-ring.reload-interval:PT1M}",
+            initialDelayString = "${jwt.key-ring.reload-interval:PT1M}")
+    public void reload() {
+        String location = jwtProperties.getKeyRing().getLocation();
+        if (!StringUtils.hasText(location)) {
+            return;
+        }
+        try {
+            String json = read(location);
+            if (Arrays.equals(TokenUtils.sha256(json), keyRing.sourceDigest())) {
+                return;
+            }
+            keyRing = loadKeyRing(json);
+            // cached claims may have been verified with a key that was just removed
+            verifiedTokenCache.invalidateAll();
+            log.info("Reloaded JWT key ring: signing with kid {}, verifying {}",
+                    keyRing.signingKey().keyId(), keyRing.verificationKeys().keySet());
+        } catch (IOException | RuntimeException ex) {
+            log.error("Could not reload JWT key ring from {}, keeping the current keys", location, ex);
+        }
+    }
+
+    public SigningKey current() {
+        return keyRing.signingKey();
+    }
+
+    public JwtParser parser() {
+        return parser;
+    }
+
+    public byte[] getJwks() {
+        return keyRing.jwks();
+    }
+
+    public String getJwksETag() {
+        return keyRing.jwksETag();
+    }
+
+    private Key verificationKey(Object kid) {
+        KeyRing ring = keyRing;
+        if (kid == null) {
+            // tokens issued before kid headers were introduced
+            return ring.defaultVerificationKey();
+        }
+        Key key = ring.verificationKeys().get(kid.toString());
+        if (key == null) {
+            throw new SignatureException("Unknown signing key id " + kid);
+        }
+        return key;
+    }
+
+    private KeyRing loadKeyRing(String json) {
+        JwkSet jwkSet = Jwks.setParser().build().parse(json);
+        String signingKeyId = jwtProperties.getKeyRing().getSigningKeyId();
+        Map<String, Key> verificationKeys = new HashMap<>();
+        List<PublicJwk<?>> publicJwks = new ArrayList<>();
+        SigningKey signingKey = null;
+        for (Jwk<?> jwk : jwkSet.getKeys()) {
+            String kid = jwk.getId();
+            if (!StringUtils.hasText(kid) || !StringUtils.hasText(jwk.getAlgorithm())) {
+                throw new IllegalArgumentException("Every key in the JWT key ring needs a kid and an alg");
+            }
+            SecureDigestAlgorithm<?, ?> algorithm = Jwts.SIG.get().forKey(jwk.getAlgorithm());
+            if (jwk instanceof PublicJwk<?> publicJwk) {
+                verificationKeys.put(kid, publicJwk.toKey());
+                publicJwks.add(publicJwk);
+                continue;
+            }
+            Key verificationKey = jwk.toKey();
+            if (jwk instanceof PrivateJwk<?, ?, ?> privateJwk) {
+                verificationKey = privateJwk.toPublicJwk().toKey();
+                publicJwks.add(privateJwk.toPublicJwk());
+            }
+            verificationKeys.put(kid, verificationKey);
+            if (signingKey == null && (!StringUtils.hasText(signingKeyId) || signingKeyId.equals(kid))) {
+                signingKey = new SigningKey(kid, algorithm, jwk.toKey());
+            }
+        }
+        if (signingKey == null) {
+            throw new IllegalArgumentException("The JWT key ring has no private or secret key"
+                    + (StringUtils.hasText(signingKeyId) ? " with kid " + signingKeyId : ""));
+        }
+        String jwks = publicJwks.stream().map(Jwks::json).collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+        return new KeyRing(signingKey, Map.copyOf(verificationKeys), verificationKeys.get(signingKey.keyId()),
+                jwks.getBytes(StandardCharsets.UTF_8), eTag(jwks), TokenUtils.sha256(json));
+    }
+
+    private KeyRing loadSingleKey() throws IOException, GeneralSecurityException {
+        SecureDigestAlgorithm<?, ?> algorithm = Jwts.SIG.get().forKey(jwtProperties.getAlgorithm());
+        if (algorithm instanceof MacAlgorithm) {
+            SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtProperties.getSecret()));
+            String keyId = StringUtils.hasText(jwtProperties.getKeyId()) ? jwtProperties.getKeyId() : null;
+            String jwks = "{\"keys\":[]}";
+            Map<String, Key> verificationKeys = keyId == null ? Map.of() : Map.of(keyId, key);
+            return new KeyRing(new SigningKey(keyId, algorithm, key), verificationKeys, key,
+                    jwks.getBytes(StandardCharsets.UTF_8), eTag(jwks), null);
+        }
+        SignatureAlgorithm signatureAlgorithm = (SignatureAlgorithm) algorithm;
+        KeyPair keyPair = loadKeyPair(signatureAlgorithm);
+        PublicJwk<PublicKey> jwk = buildPublicJwk(keyPair.getPublic(), signatureAlgorithm);
+        String jwks = "{\"keys\":[" + Jwks.json(jwk) + "]}";
+        return new KeyRing(new SigningKey(jwk.getId(), algorithm, keyPair.getPrivate()),
+                Map.of(jwk.getId(), keyPair.getPublic()), keyPair.getPublic(),
+                jwks.getBytes(StandardCharsets.UTF_8), eTag(jwks), null);
+    }
+
+    private KeyPair loadKeyPair(SignatureAlgorithm algorithm) throws IOException, GeneralSecurityException {
+        if (!StringUtils.hasText(jwtProperties.getPrivateKey()) || !StringUtils.hasText(jwtProperties.getPublicKey())) {
+            if (!jwtProperties.isEphemeralKeys()) {
+                throw new IllegalStateException("jwt.private-key and jwt.public-key are required for " + algorithm.getId()
+                        + "; set jwt.ephemeral-keys=true to generate a throwaway pair for local use");
+            }
+            log.warn("No key pair configured for {}, generating an ephemeral one; tokens will not survive a restart "
+                    + "and other nodes will not accept them", algorithm.getId());
+            // the EdDSA default is Ed448; Ed25519 gives the smaller, faster signatures
+            return algorithm == Jwts.SIG.EdDSA ? Jwks.CRV.Ed25519.keyPair().build() : algorithm.keyPair().build();
+        }
+        String keyAlgorithm = keyAlgorithm(algorithm);
+        PrivateKey privateKey = PemUtils.readPrivateKey(read(jwtProperties.getPrivateKey()), keyAlgorithm);
+        PublicKey publicKey = PemUtils.readPublicKey(read(jwtProperties.getPublicKey()), keyAlgorithm);
+        return new KeyPair(publicKey, privateKey);
+    }
+
+    private PublicJwk<PublicKey> buildPublicJwk(PublicKey publicKey, SignatureAlgorithm algorithm) {
+        var builder = Jwks.builder().key(publicKey).algorithm(algorithm.getId()).publicKeyUse("sig");
+        if (StringUtils.hasText(jwtProperties.getKeyId())) {
+            builder.id(jwtProperties.getKeyId());
+        } else {
+            builder.idFromThumbprint();
+        }
+        return builder.build();
+    }
+
+    private static String keyAlgorithm(SignatureAlgorithm algorithm) {
+        String id = algorithm.getId();
+        if (id.startsWith("RS") || id.startsWith("PS")) {
+            return "RSA";
+        }
+        if (id.startsWith("ES")) {
+            return "EC";
+        }
+        return "EdDSA";
+    }
+
+    private static String eTag(String jwks) {
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(TokenUtils.sha256(jwks)) + "\"";
+    }
+
+    private String read(String location) throws IOException {
+        return resourceLoader.getResource(location).getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    public record SigningKey(String keyId, SecureDigestAlgorithm<?, ?> algorithm, Key key) {
+    }
+
+    private record KeyRing(SigningKey signingKey, Map<String, Key> verificationKeys, Key defaultVerificationKey,
+                           byte[] jwks, String jwksETag, byte[] sourceDigest) {
+    }
+}
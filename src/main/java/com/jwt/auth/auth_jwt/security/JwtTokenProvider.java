@@ -1,17 +1,19 @@
 package com.jwt.auth.auth_jwt.security;
 
 import com.jwt.auth.auth_jwt.config.JwtProperties;
+import com.jwt.auth.auth_jwt.utils.Constants;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+import io.jsonwebtoken.security.SecurityException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 import lombok.RequiredArgsConstructor;
 
-import javax.crypto.SecretKey;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 @Component
 @Slf4j
@@ -19,76 +21,136 @@ import java.util.Date;
 public class JwtTokenProvider {
 
     private final JwtProperties jwtProperties;
+    private final AuthorityBits authorityBits;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final JwtSigningKeys jwtSigningKeys;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtProperties.getSecret());
-        return Keys.hmacShaKeyFor(keyBytes);
+    public String generateToken(Authentication authentication) {
+        return generateToken((UserPrincipal) authentication.getPrincipal());
     }
 
-    public String generateToken(Authentication authentication) {
-        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+    public String generateToken(UserPrincipal userPrincipal) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtProperties.getAccessToken().getExpiration());
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(Long.toString(userPrincipal.getId()))
                 .issuer(jwtProperties.getIssuer())
-                .issuedAt(new Date())
-                .expiration(expiryDate)
-                .signWith(getSigningKey(), Jwts.SIG.HS512)
-                .compact();
+                .issuedAt(now)
+                .expiration(expiryDate);
+        if (jwtProperties.isStatelessAuthentication()) {
+            builder.claim(Constants.CLAIM_USERNAME, userPrincipal.getUsername())
+                    .claim(Constants.CLAIM_EMAIL, userPrincipal.getEmail())
+                    .claim(Constants.CLAIM_EMAIL_VERIFIED, userPrincipal.isEmailVerified())
+                    .claim(Constants.CLAIM_ROLES, userPrincipal.getRoles())
+                    .claim(Constants.CLAIM_PERMISSIONS, userPrincipal.getPermissions());
+        }
+        return sign(builder);
     }
 
     public String generateTokenFromUserId(Long userId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtProperties.getAccessToken().getExpiration());
-        return Jwts.builder()
+        return sign(Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(Long.toString(userId))
                 .issuer(jwtProperties.getIssuer())
-                .issuedAt(new Date())
-                .expiration(expiryDate)
-                .signWith(getSigningKey(), Jwts.SIG.HS512)
-                .compact();
+                .issuedAt(now)
+                .expiration(expiryDate));
     }
 
-    public String generateRefreshToken(Long userId) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtProperties.getRefreshToken().getExpiration());
-        return Jwts.builder()
-                .subject(Long.toString(userId))
-                .issuer(jwtProperties.getIssuer())
-                .issuedAt(new Date())
-                .expiration(expiryDate)
-                .signWith(getSigningKey(), Jwts.SIG.HS512)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private String sign(JwtBuilder builder) {
+        JwtSigningKeys.SigningKey signingKey = jwtSigningKeys.current();
+        if (signingKey.keyId() != null) {
+            builder.header().keyId(signingKey.keyId());
+        }
+        return builder
+                .signWith(signingKey.key(), (SecureDigestAlgorithm) signingKey.algorithm())
                 .compact();
     }
 
-    public Long getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return Long.parseLong(claims.getSubject());
-    }
-
-    public boolean validateToken(String authToken) {
+    public JwtValidationResult parseToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
-        } catch (SignatureException ex) {
-            log.error("Invalid JWT signature");
+            Claims claims = verifiedTokenCache.get(token, this::verify);
+            if (!hasUserIdSubject(claims)) {
+                log.debug("JWT subject is not a user id");
+                return JwtValidationResult.invalid(JwtValidationResult.Failure.INVALID_CLAIMS);
+            }
+            if (accessTokenDenylist.isRevoked(claims.getId())) {
+                log.debug("Revoked JWT token");
+                return JwtValidationResult.invalid(JwtValidationResult.Failure.REVOKED);
+            }
+            return JwtValidationResult.valid(claims);
+        } catch (SecurityException ex) {
+            log.debug("Invalid JWT signature");
+            return JwtValidationResult.invalid(JwtValidationResult.Failure.INVALID_SIGNATURE);
         } catch (MalformedJwtException ex) {
-            log.error("Invalid JWT token");
+            log.debug("Invalid JWT token");
+            return JwtValidationResult.invalid(JwtValidationResult.Failure.MALFORMED);
         } catch (ExpiredJwtException ex) {
-            log.error("Expired JWT token");
+            log.debug("Expired JWT token");
+            return JwtValidationResult.invalid(JwtValidationResult.Failure.EXPIRED);
         } catch (UnsupportedJwtException ex) {
-            log.error("Unsupported JWT token");
+            log.debug("Unsupported JWT token");
+            return JwtValidationResult.invalid(JwtValidationResult.Failure.UNSUPPORTED);
+        } catch (JwtException ex) {
+            log.debug("Invalid JWT claims: {}", ex.getMessage());
+            return JwtValidationResult.invalid(JwtValidationResult.Failure.INVALID_CLAIMS);
         } catch (IllegalArgumentException ex) {
-            log.error("JWT claims string is empty");
+            log.debug("JWT claims string is empty");
+            return JwtValidationResult.invalid(JwtValidationResult.Failure.EMPTY);
+        }
+    }
+
+    private static boolean hasUserIdSubject(Claims claims) {
+        try {
+            Long.parseLong(claims.getSubject());
+            return true;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    private Claims verify(String token) {
+        return jwtSigningKeys.parser().parseSignedClaims(token).getPayload();
+    }
+
+    public void revoke(String token) {
+        JwtValidationResult result = parseToken(token);
+        if (result.isValid()) {
+            accessTokenDenylist.revoke(result.getClaims().getId(), result.getClaims().getExpiration().toInstant());
+        }
+    }
+
+    public UserPrincipal getUserPrincipal(Claims claims) {
+        if (!claims.containsKey(Constants.CLAIM_ROLES)) {
+            return null;
         }
-        return false;
+        return UserPrincipal.create(
+                Long.parseLong(claims.getSubject()),
+                claims.get(Constants.CLAIM_USERNAME, String.class),
+                claims.get(Constants.CLAIM_EMAIL, String.class),
+                Boolean.TRUE.equals(claims.get(Constants.CLAIM_EMAIL_VERIFIED, Boolean.class)),
+                getStrings(claims, Constants.CLAIM_ROLES),
+                getStrings(claims, Constants.CLAIM_PERMISSIONS),
+                authorityBits);
+    }
+
+    private static List<String> getStrings(Claims claims, String name) {
+        Collection<?> values = claims.get(name, Collection.class);
+        if (values == null) {
+            return List.of();
+        }
+        return values.stream().map(String::valueOf).toList();
+    }
+
+    public Long getUserIdFromJWT(String token) {
+        return Long.parseLong(verifiedTokenCache.get(token, this::verify).getSubject());
+    }
+
+    public boolean validateToken(String authToken) {
+        return parseToken(authToken).isValid();
     }
 }
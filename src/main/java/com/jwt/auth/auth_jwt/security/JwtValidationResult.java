@@ -0,0 +1,40 @@
+package com.jwt.auth.auth_jwt.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class JwtValidationResult {
+
+    private final Claims claims;
+    private final Failure failure;
+
+    public static JwtValidationResult valid(Claims claims) {
+        return new JwtValidationResult(claims, null);
+    }
+
+    public static JwtValidationResult invalid(Failure failure) {
+        return new JwtValidationResult(null, failure);
+    }
+
+    public boolean isValid() {
+        return failure == null;
+    }
+
+    public Long getUserId() {
+        return Long.parseLong(claims.getSubject());
+    }
+
+    public enum Failure {
+        INVALID_SIGNATURE,
+        EXPIRED,
+        MALFORMED,
+        UNSUPPORTED,
+        EMPTY,
+        INVALID_CLAIMS,
+        REVOKED
+    }
+}
@@ -0,0 +1,142 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Counts failed logins per account and per client IP over a sliding window held in memory on this node.
+ * Attempts over either limit are rejected before the password is hashed.
+ * <p>
+ * A login is counted against the user id it resolved to, so the username and the email of one account share a
+ * single count; logins that never resolved to a user are counted by the login string itself.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private static final int BUCKETS = 10;
+
+    private final Cache<String, SlidingWindowCounter> failuresByUsername;
+    private final Cache<Long, SlidingWindowCounter> failuresByAccount;
+    private final Cache<String, Long> accountsByLogin;
+    private final Cache<String, SlidingWindowCounter> failuresByIp;
+    private final long bucketMillis;
+    private final int maxFailuresPerUsername;
+    private final int maxFailuresPerIp;
+    private final Counter usernameRejections;
+    private final Counter ipRejections;
+
+    public LoginAttemptLimiter(AppProperties appProperties, MeterRegistry meterRegistry) {
+        AppProperties.LoginLimiter config = appProperties.getLoginLimiter();
+        this.bucketMillis = Math.max(1, config.getWindow().toMillis() / BUCKETS);
+        this.maxFailuresPerUsername = config.getMaxFailuresPerUsername();
+        this.maxFailuresPerIp = config.getMaxFailuresPerIp();
+        this.failuresByUsername = Caffeine.newBuilder()
+                .maximumSize(config.getMaxKeys())
+                .expireAfterAccess(config.getWindow())
+                .build();
+        this.failuresByAccount = Caffeine.newBuilder()
+                .maximumSize(config.getMaxKeys())
+                .expireAfterAccess(config.getWindow())
+                .build();
+        this.accountsByLogin = Caffeine.newBuilder()
+                .maximumSize(config.getMaxKeys())
+                .expireAfterAccess(config.getWindow())
+                .build();
+        this.failuresByIp = Caffeine.newBuilder()
+                .maximumSize(config.getMaxKeys())
+                .expireAfterAccess(config.getWindow())
+                .build();
+        this.usernameRejections = rejections(meterRegistry, "username");
+        this.ipRejections = rejections(meterRegistry, "ip");
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected before authentication after too many failures")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    public void checkAllowed(String usernameOrEmail, String clientIp) {
+        long now = System.currentTimeMillis();
+        long bucket = now / bucketMillis;
+        SlidingWindowCounter byUsername = loginCounter(normalize(usernameOrEmail));
+        if (byUsername != null && byUsername.count(bucket) >= maxFailuresPerUsername) {
+            usernameRejections.increment();
+            throw new TooManyRequestsException("Too many failed login attempts for this account",
+                    retryAfter(byUsername, maxFailuresPerUsername, now));
+        }
+        SlidingWindowCounter byIp = counter(failuresByIp, clientIp);
+        if (byIp != null && byIp.count(bucket) >= maxFailuresPerIp) {
+            ipRejections.increment();
+            throw new TooManyRequestsException("Too many failed login attempts from this address",
+                    retryAfter(byIp, maxFailuresPerIp, now));
+        }
+    }
+
+    /**
+     * Returns {@code true} once the account has reached its limit, i.e. when it should be locked.
+     *
+     * @param userId the user the login resolved to, or {@code null} when it did not resolve
+     */
+    public boolean recordFailure(String usernameOrEmail, Long userId, String clientIp) {
+        long bucket = currentBucket();
+        if (clientIp != null) {
+            failuresByIp.get(clientIp, key -> new SlidingWindowCounter(BUCKETS)).increment(bucket);
+        }
+        String login = normalize(usernameOrEmail);
+        SlidingWindowCounter counter;
+        if (userId == null) {
+            counter = failuresByUsername.get(login, key -> new SlidingWindowCounter(BUCKETS));
+        } else {
+            accountsByLogin.put(login, userId);
+            counter = failuresByAccount.get(userId, key -> new SlidingWindowCounter(BUCKETS));
+        }
+        return counter.increment(bucket) >= maxFailuresPerUsername;
+    }
+
+    public void reset(String usernameOrEmail) {
+        String login = normalize(usernameOrEmail);
+        Long userId = accountsByLogin.getIfPresent(login);
+        if (userId != null) {
+            failuresByAccount.invalidate(userId);
+        }
+        failuresByUsername.invalidate(login);
+    }
+
+    public void reset(String usernameOrEmail, Long userId) {
+        failuresByAccount.invalidate(userId);
+        failuresByUsername.invalidate(normalize(usernameOrEmail));
+    }
+
+    private SlidingWindowCounter loginCounter(String login) {
+        Long userId = accountsByLogin.getIfPresent(login);
+        return userId == null ? failuresByUsername.getIfPresent(login) : failuresByAccount.getIfPresent(userId);
+    }
+
+    private static SlidingWindowCounter counter(Cache<String, SlidingWindowCounter> counters, String key) {
+        return key == null ? null : counters.getIfPresent(key);
+    }
+
+    // until enough of the oldest counted failures have left the window to get back under the limit
+    private Duration retryAfter(SlidingWindowCounter counter, int limit, long now) {
+        long bucket = now / bucketMillis;
+        return Duration.ofMillis(counter.bucketsUntilBelow(bucket, limit) * bucketMillis - now % bucketMillis);
+    }
+
+    private long currentBucket() {
+        return System.currentTimeMillis() / bucketMillis;
+    }
+
+    private static String normalize(String usernameOrEmail) {
+        return usernameOrEmail.toLowerCase(Locale.ROOT);
+    }
+}
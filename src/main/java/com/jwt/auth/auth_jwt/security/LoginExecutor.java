@@ -0,0 +1,64 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs password verification on a fixed pool sized to the cores with a bounded queue, so a burst of
+ * logins cannot oversubscribe the CPU with BCrypt. A full queue fails fast instead of queueing
+ * requests that would time out anyway. Nothing else runs here: blocking I/O would starve the pool.
+ */
+@Component
+public class LoginExecutor implements DisposableBean {
+
+    private final ThreadPoolTaskExecutor executor;
+    private final AppProperties.Login config;
+
+    public LoginExecutor(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.config = appProperties.getLogin();
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(config.getThreads());
+        executor.setMaxPoolSize(config.getThreads());
+        executor.setQueueCapacity(config.getQueueCapacity());
+        executor.setThreadNamePrefix("login-");
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "login", List.of()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Runs the task on the pool and waits for its result, rethrowing whatever the task threw.
+     */
+    public <T> T call(Supplier<T> task) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(task, executor);
+        } catch (TaskRejectedException ex) {
+            throw new ServiceOverloadedException("Too many concurrent login attempts, please retry later",
+                    config.getRetryAfter());
+        }
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,31 @@
+package com.jwt.auth.auth_jwt.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Runs {@link #matches} and the hash upgrade in {@link #encode} on the {@link LoginExecutor}. Only hashing
+ * is CPU bound; the user lookup and session writes around it stay on the request thread, which is sized
+ * for blocking I/O.
+ */
+@RequiredArgsConstructor
+public class LoginPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final LoginExecutor loginExecutor;
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return loginExecutor.call(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return loginExecutor.call(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
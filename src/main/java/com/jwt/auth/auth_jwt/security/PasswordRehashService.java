@@ -0,0 +1,102 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.repository.UserJdbcRepository;
+import com.jwt.auth.auth_jwt.repository.UserJdbcRepository.PasswordUpdate;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Receives upgraded password hashes from {@code DaoAuthenticationProvider} after a successful login
+ * and writes them in batches, so an upgrade never adds a synchronous UPDATE to the login itself.
+ * Until the flush, the cached principal carries the new hash so repeat logins do not rehash again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PasswordRehashService implements UserDetailsPasswordService {
+
+    private final UserJdbcRepository userJdbcRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final AuthEventPublisher authEventPublisher;
+
+    private final Map<Long, PasswordUpdate> pending = new ConcurrentHashMap<>();
+    private final Lock flushLock = new ReentrantLock();
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserPrincipal principal = (UserPrincipal) user;
+        pending.merge(principal.getId(), new PasswordUpdate(principal.getId(), principal.getPassword(), newPassword),
+                (queued, latest) -> new PasswordUpdate(queued.userId(), queued.currentHash(), latest.newHash()));
+        UserPrincipal upgraded = principal.toBuilder().password(newPassword).build();
+        userPrincipalCache.replace(principal, upgraded);
+        return upgraded;
+    }
+
+    @Scheduled(fixedDelayString = "${app.password.rehash-flush-interval:PT5S}")
+    public void flush() {
+        if (pending.isEmpty() || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void drain() {
+        flushLock.lock();
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writePending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<PasswordUpdate> batch = new ArrayList<>(pending.size());
+        for (Long userId : pending.keySet()) {
+            PasswordUpdate update = pending.remove(userId);
+            if (update != null) {
+                batch.add(update);
+            }
+        }
+        int[] counts;
+        try {
+            counts = userJdbcRepository.updatePasswords(batch, LocalDateTime.now());
+        } catch (DataAccessException ex) {
+            // the row still holds the hash the failed update was guarded by
+            batch.forEach(update -> pending.merge(update.userId(), update,
+                    (newer, failed) -> new PasswordUpdate(failed.userId(), failed.currentHash(), newer.newHash())));
+            log.warn("Could not upgrade {} password hashes, retrying on the next flush: {}", batch.size(), ex.getMessage());
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Long userId = batch.get(i).userId();
+            if (counts[i] == 0) {
+                // password changed since the login; drop the principal holding the stale upgrade
+                userPrincipalCache.evict(userId);
+            }
+            authEventPublisher.userChanged(userId);
+        }
+        log.debug("Upgraded {} password hashes", batch.size());
+    }
+}
@@ -0,0 +1,73 @@
+package com.jwt.auth.auth_jwt.security;
+
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class PermissionAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final RequiredPermissions NONE = new RequiredPermissions(Set.of(), 0L);
+
+    private final AuthorityBits authorityBits;
+    private final Map<MethodClassKey, RequiredPermissions> requiredPermissionsByMethod = new ConcurrentHashMap<>();
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() == null ? null : AopUtils.getTargetClass(invocation.getThis());
+        RequiredPermissions required = requiredPermissionsByMethod.computeIfAbsent(
+                new MethodClassKey(invocation.getMethod(), targetClass),
+                key -> resolve(invocation.getMethod(), targetClass));
+        if (required == NONE) {
+            return new AuthorizationDecision(true);
+        }
+        Authentication current = authentication.get();
+        if (current == null || !current.isAuthenticated()) {
+            return new AuthorizationDecision(false);
+        }
+        if (current.getPrincipal() instanceof UserPrincipal principal) {
+            if ((required.mask() & AuthorityBits.OVERFLOW) == 0) {
+                return new AuthorizationDecision((principal.getAuthorityMask() & required.mask()) == required.mask());
+            }
+            return new AuthorizationDecision(required.names().stream()
+                    .allMatch(name -> authorityBits.hasAuthority(principal, name)));
+        }
+        Set<String> granted = current.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        return new AuthorizationDecision(granted.containsAll(required.names()));
+    }
+
+    private RequiredPermissions resolve(Method method, Class<?> targetClass) {
+        Method specificMethod = targetClass == null ? method : AopUtils.getMostSpecificMethod(method, targetClass);
+        RequiresPermission found = AnnotatedElementUtils.findMergedAnnotation(specificMethod, RequiresPermission.class);
+        if (found == null) {
+            Class<?> declaringClass = targetClass == null ? specificMethod.getDeclaringClass() : targetClass;
+            found = AnnotatedElementUtils.findMergedAnnotation(declaringClass, RequiresPermission.class);
+        }
+        if (found == null) {
+            return NONE;
+        }
+        List<String> names = List.of(found.value());
+        return new RequiredPermissions(Set.copyOf(names), authorityBits.maskOf(names));
+    }
+
+    private record RequiredPermissions(Set<String> names, long mask) {
+    }
+}
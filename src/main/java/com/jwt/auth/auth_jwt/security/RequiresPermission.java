@@ -0,0 +1,21 @@
+package com.jwt.auth.auth_jwt.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requires the caller to hold every listed permission (e.g. {@code USER_READ}). A method-level annotation
+ * overrides one declared on the class.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface RequiresPermission {
+
+    String[] value();
+}
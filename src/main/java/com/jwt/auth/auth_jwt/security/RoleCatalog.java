@@ -0,0 +1,79 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.entity.Permission;
+import com.jwt.auth.auth_jwt.entity.Role;
+import com.jwt.auth.auth_jwt.exception.ResourceNotFoundException;
+import com.jwt.auth.auth_jwt.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoleCatalog {
+
+    private final RoleRepository roleRepository;
+    private final UserPrincipalCache userPrincipalCache;
+
+    private volatile Map<String, RoleDefinition> rolesByName = Map.of();
+
+    @PostConstruct
+    void load() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.role-catalog.refresh-interval:PT10M}",
+            initialDelayString = "${app.role-catalog.refresh-interval:PT10M}")
+    public void refresh() {
+        Map<String, RoleDefinition> loaded = roleRepository.findAllWithPermissions().stream()
+                .map(RoleCatalog::toDefinition)
+                .collect(Collectors.toUnmodifiableMap(RoleDefinition::name, Function.identity()));
+        if (!loaded.equals(rolesByName)) {
+            rolesByName = loaded;
+            userPrincipalCache.evictAll();
+            log.info("Loaded {} roles into the role catalog", loaded.size());
+        }
+    }
+
+    public RoleDefinition getByName(String name) {
+        RoleDefinition role = rolesByName.get(name);
+        if (role == null) {
+            throw new ResourceNotFoundException("Role", "name", name);
+        }
+        return role;
+    }
+
+    public Set<String> getPermissions(String roleName) {
+        RoleDefinition role = rolesByName.get(roleName);
+        return role == null ? Set.of() : role.permissions();
+    }
+
+    public Set<String> getPermissions(Collection<String> roleNames) {
+        return roleNames.stream()
+                .flatMap(roleName -> getPermissions(roleName).stream())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public Collection<RoleDefinition> getRoles() {
+        return rolesByName.values();
+    }
+
+    private static RoleDefinition toDefinition(Role role) {
+        Set<String> permissions = role.getPermissions().stream()
+                .map(Permission::getName)
+                .collect(Collectors.toUnmodifiableSet());
+        return new RoleDefinition(role.getId(), role.getName(), permissions);
+    }
+
+    public record RoleDefinition(Long id, String name, Set<String> permissions) {
+    }
+}
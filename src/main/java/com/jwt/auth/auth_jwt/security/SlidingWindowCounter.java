@@ -0,0 +1,65 @@
+package com.jwt.auth.auth_jwt.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free event counter over the last {@code buckets} time buckets. Each slot packs the bucket it
+ * belongs to and its count into one long, so a slot is recycled and incremented with a single CAS.
+ */
+final class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray slots;
+
+    SlidingWindowCounter(int buckets) {
+        this.slots = new AtomicLongArray(buckets);
+    }
+
+    /**
+     * Counts one event in {@code bucket} and returns the total over the window ending at it.
+     */
+    int increment(long bucket) {
+        int index = (int) Math.floorMod(bucket, (long) slots.length());
+        long current;
+        long next;
+        do {
+            current = slots.get(index);
+            if (current >>> COUNT_BITS != bucket) {
+                next = bucket << COUNT_BITS | 1;
+            } else if ((current & COUNT_MASK) == COUNT_MASK) {
+                break;
+            } else {
+                next = current + 1;
+            }
+        } while (!slots.compareAndSet(index, current, next));
+        return count(bucket);
+    }
+
+    int count(long bucket) {
+        long oldest = bucket - slots.length();
+        int total = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            long slot = slots.get(i);
+            long slotBucket = slot >>> COUNT_BITS;
+            if (slotBucket > oldest && slotBucket <= bucket) {
+                total += (int) (slot & COUNT_MASK);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns how many buckets after {@code bucket} the total first drops below {@code limit}, at most
+     * the window length, assuming no further events.
+     */
+    int bucketsUntilBelow(long bucket, int limit) {
+        for (int ahead = 1; ahead < slots.length(); ahead++) {
+            if (count(bucket + ahead) < limit) {
+                return ahead;
+            }
+        }
+        return slots.length();
+    }
+}
@@ -0,0 +1,88 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.entity.Role;
+import com.jwt.auth.auth_jwt.entity.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts cached principals whenever Hibernate updates or deletes a user row, a user's role set or a role's
+ * permission set. Bulk JPQL/JDBC updates bypass these events and must call {@link UserPrincipalCache} directly.
+ * Every eviction is also published to the other nodes through {@link AuthEventPublisher}. Collection
+ * recreation is not observed: it fires for newly inserted owners that no node has cached, and replacing
+ * the collection of an existing owner also removes the old one, which is.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheEvictionListener implements PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserPrincipalCache userPrincipalCache;
+    private final AuthEventPublisher authEventPublisher;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onEntityChanged(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        onEntityChanged(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onCollectionChanged(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        onCollectionChanged(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void onCollectionChanged(AbstractCollectionEvent event) {
+        onEntityChanged(event.getAffectedOwnerOrNull());
+    }
+
+    private void onEntityChanged(Object entity) {
+        if (entity instanceof User user && user.getId() != null) {
+            userPrincipalCache.evict(user.getId());
+            authEventPublisher.userChanged(user.getId());
+        } else if (entity instanceof Role) {
+            userPrincipalCache.evictAll();
+            authEventPublisher.rolesChanged();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.jwt.auth.auth_jwt.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Serializable;
+
+/**
+ * Backs {@code hasPermission(...)} expressions with the permissions granted through the user's roles, e.g.
+ * {@code hasPermission(null, 'USER_READ')} or {@code hasPermission(#id, 'USER', 'READ')}.
+ */
+@RequiredArgsConstructor
+public class UserPermissionEvaluator implements PermissionEvaluator {
+
+    private final AuthorityBits authorityBits;
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
+        return hasPermission(authentication, String.valueOf(permission));
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Serializable targetId, String targetType,
+                                 Object permission) {
+        return hasPermission(authentication, targetType + "_" + permission);
+    }
+
+    private boolean hasPermission(Authentication authentication, String permission) {
+        if (authentication == null) {
+            return false;
+        }
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return authorityBits.hasAuthority(principal, permission);
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(permission::equals);
+    }
+}
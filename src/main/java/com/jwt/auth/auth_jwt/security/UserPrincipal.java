@@ -1,47 +1,83 @@
 package com.jwt.auth.auth_jwt.security;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.jwt.auth.auth_jwt.entity.Role;
 import com.jwt.auth.auth_jwt.entity.User;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@EqualsAndHashCode(of = "id")
+@ToString(exclude = "password")
 public class UserPrincipal implements UserDetails {
 
-    private Long id;
-    private String username;
-    private String email;
+    private final Long id;
+    private final String username;
+    private final String email;
     @JsonIgnore
-    private String password;
-    private Collection<? extends GrantedAuthority> authorities;
-    private boolean isEmailVerified;
+    private final String password;
+    private final Collection<? extends GrantedAuthority> authorities;
+    private final long authorityMask;
+    private final Set<String> roles;
+    private final Set<String> permissions;
+    private final boolean isEmailVerified;
+    private final boolean accountLocked;
+    private final LocalDateTime lockedUntil;
 
-    public static UserPrincipal create(User user) {
-        List<GrantedAuthority> authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName()))
-                .collect(Collectors.toList());
+    public static UserPrincipal create(User user, RoleCatalog roleCatalog, AuthorityBits authorityBits) {
+        List<String> roles = user.getRoles().stream()
+                .map(Role::getName)
+                .toList();
+        Set<String> permissions = roleCatalog.getPermissions(roles);
+        long authorityMask = authorityBits.maskOf(roles) | authorityBits.maskOf(permissions);
         return UserPrincipal.builder()
                 .id(user.getId())
                 .username(user.getUsername())
                 .email(user.getEmail())
                 .password(user.getPassword())
-                .authorities(authorities)
+                .authorities(authorityBits.authoritiesOf(authorityMask, roles, permissions))
+                .authorityMask(authorityMask)
+                .roles(Set.copyOf(roles))
+                .permissions(permissions)
                 .isEmailVerified(user.isEmailVerified())
+                .accountLocked(user.isAccountLocked())
+                .lockedUntil(user.getLockedUntil())
                 .build();
     }
 
+    public static UserPrincipal create(Long id, String username, String email, boolean isEmailVerified,
+                                       Collection<String> roles, Collection<String> permissions,
+                                       AuthorityBits authorityBits) {
+        long authorityMask = authorityBits.maskOf(roles) | authorityBits.maskOf(permissions);
+        return UserPrincipal.builder()
+                .id(id)
+                .username(username)
+                .email(email)
+                .authorities(authorityBits.authoritiesOf(authorityMask, roles, permissions))
+                .authorityMask(authorityMask)
+                .roles(Set.copyOf(roles))
+                .permissions(Set.copyOf(permissions))
+                .isEmailVerified(isEmailVerified)
+                .build();
+    }
+
+    boolean hasAuthorityName(String authority) {
+        return roles.contains(authority) || permissions.contains(authority);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -64,7 +100,7 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return true;
+        return !accountLocked || lockedUntil != null && lockedUntil.isBefore(LocalDateTime.now());
     }
 
     @Override
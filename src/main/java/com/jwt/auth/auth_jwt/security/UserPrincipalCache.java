@@ -0,0 +1,108 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+@Component
+public class UserPrincipalCache {
+
+    private final boolean enabled;
+    private final Cache<Long, UserPrincipal> principalsById;
+    // only trusted while principalsById still holds the very same instance, so evicting a user needs no scan here
+    private final Cache<String, UserPrincipal> principalsByLogin;
+    private final Counter invalidations;
+
+    public UserPrincipalCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+        AppProperties.UserCache config = appProperties.getUserCache();
+        this.enabled = config.isEnabled();
+        this.principalsById = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+        this.principalsByLogin = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize() * 2)
+                .expireAfterWrite(config.getTtl())
+                .build();
+        this.invalidations = Counter.builder("auth.user.principal.cache.invalidations")
+                .description("Principals evicted because the user or their sessions changed")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, principalsById, "userPrincipals");
+    }
+
+    public UserPrincipal getById(Long id, Function<Long, UserPrincipal> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        UserPrincipal cached = principalsById.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        // loaded outside Cache.get, whose compute lock would pin a virtual thread for the whole query
+        UserPrincipal principal = loader.apply(id);
+        principalsById.put(id, principal);
+        return principal;
+    }
+
+    public UserPrincipal getByLogin(String usernameOrEmail, Function<String, UserPrincipal> loader) {
+        if (!enabled) {
+            return loader.apply(usernameOrEmail);
+        }
+        UserPrincipal cached = principalsByLogin.getIfPresent(usernameOrEmail);
+        if (cached != null && principalsById.getIfPresent(cached.getId()) == cached) {
+            return cached;
+        }
+        UserPrincipal principal = loader.apply(usernameOrEmail);
+        principalsById.put(principal.getId(), principal);
+        principalsByLogin.put(usernameOrEmail, principal);
+        return principal;
+    }
+
+    /**
+     * Swaps {@code previous} for {@code updated} wherever it is still cached. Login entries are keyed by the
+     * exact username or email, as {@link CustomUserDetailsService} looks users up by exact match.
+     */
+    public void replace(UserPrincipal previous, UserPrincipal updated) {
+        if (swap(principalsById.asMap(), previous.getId(), previous, updated)) {
+            swap(principalsByLogin.asMap(), previous.getUsername(), previous, updated);
+            swap(principalsByLogin.asMap(), previous.getEmail(), previous, updated);
+        }
+    }
+
+    // by identity, since principals are equal by id and one reloaded meanwhile must not be overwritten
+    private static <K> boolean swap(ConcurrentMap<K, UserPrincipal> map, K key, UserPrincipal previous,
+                                    UserPrincipal updated) {
+        return key != null && map.computeIfPresent(key, (k, cached) -> cached == previous ? updated : cached) == updated;
+    }
+
+    public void evict(Long userId) {
+        principalsById.invalidate(userId);
+        invalidations.increment();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // a concurrent reader may have re-cached the pre-commit row in the meantime
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    principalsById.invalidate(userId);
+                }
+            });
+        }
+    }
+
+
+    public void evictAll() {
+        principalsById.invalidateAll();
+        principalsByLogin.invalidateAll();
+        invalidations.increment();
+    }
+}
@@ -0,0 +1,86 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Claims of access tokens whose signature has already been verified, so repeated requests with the
+ * same token skip signature checks and JSON parsing. Entries expire with the token; revocation is
+ * still checked by the caller on every hit.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final boolean enabled;
+    private final long maxTtlNanos;
+    private final Cache<String, Claims> claimsByToken;
+    private final Timer verifications;
+
+    public VerifiedTokenCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+        AppProperties.TokenCache config = appProperties.getTokenCache();
+        this.enabled = config.isEnabled();
+        this.maxTtlNanos = config.getMaxTtl().toNanos();
+        this.claimsByToken = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfter(new ExpireAtTokenExpiry())
+                .recordStats()
+                .build();
+        this.verifications = Timer.builder("auth.jwt.verification")
+                .description("Signature verification and claims parsing of access tokens missing from the cache")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsByToken, "verifiedTokens");
+        Gauge.builder("auth.jwt.verification.saved", this,
+                        cache -> cache.claimsByToken.stats().hitCount() * cache.verifications.mean(TimeUnit.SECONDS))
+                .description("Estimated verification time avoided by cache hits")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Keyed by the token itself rather than a digest of it: String hashing is cheaper than any
+     * cryptographic hash, and equality on the full token rules out collisions being accepted as valid.
+     */
+    public Claims get(String token, Function<String, Claims> verifier) {
+        if (!enabled) {
+            return verifications.record(() -> verifier.apply(token));
+        }
+        return claimsByToken.get(token, key -> verifications.record(() -> verifier.apply(key)));
+    }
+
+    public void invalidateAll() {
+        claimsByToken.invalidateAll();
+    }
+
+    private final class ExpireAtTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            if (claims.getExpiration() == null) {
+                return maxTtlNanos;
+            }
+            long remaining = TimeUnit.MILLISECONDS.toNanos(claims.getExpiration().getTime() - System.currentTimeMillis());
+            return Math.max(0, Math.min(remaining, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
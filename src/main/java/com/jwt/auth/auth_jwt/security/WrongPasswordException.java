@@ -0,0 +1,19 @@
+package com.jwt.auth.auth_jwt.security;
+
+import lombok.Getter;
+import org.springframework.security.authentication.BadCredentialsException;
+
+/**
+ * Bad credentials for an existing user, carrying the id resolved during authentication so failure
+ * bookkeeping needs no second lookup. Unknown logins still surface as a plain {@link BadCredentialsException}.
+ */
+@Getter
+public class WrongPasswordException extends BadCredentialsException {
+
+    private final Long userId;
+
+    public WrongPasswordException(String message, Long userId) {
+        super(message);
+        this.userId = userId;
+    }
+}
@@ -9,11 +9,17 @@ import com.jwt.auth.auth_jwt.entity.User;
 
 public interface AuthService {
 
-    JwtAuthenticationResponse login(LoginRequest loginRequest);
+    JwtAuthenticationResponse login(LoginRequest loginRequest, String clientIp);
 
     User register(SignUpRequest signUpRequest);
 
     TokenRefreshResponse refreshToken(TokenRefreshRequest request);
 
-    void logout(String refreshToken);
+    void logout(String refreshToken, String accessToken);
+
+    int logoutAll(Long userId, String accessToken);
+
+    int revokeSessions(Long userId);
+
+    void unlockAccount(Long userId);
 }
@@ -1,9 +1,13 @@
 package com.jwt.auth.auth_jwt.service;
 
+import com.jwt.auth.auth_jwt.dto.response.CursorPageResponse;
 import com.jwt.auth.auth_jwt.dto.response.UserResponse;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
 
 public interface UserService {
-    List<UserResponse> getAllUsers();
+    CursorPageResponse<UserResponse> getUsers(Long cursor, Integer size, String role, Boolean verified);
+
+    void exportUsers(OutputStream outputStream) throws IOException;
 }
@@ -1,5 +1,6 @@
 package com.jwt.auth.auth_jwt.service.impl;
 
+import com.jwt.auth.auth_jwt.config.AppProperties;
 import com.jwt.auth.auth_jwt.dto.request.LoginRequest;
 import com.jwt.auth.auth_jwt.dto.request.SignUpRequest;
 import com.jwt.auth.auth_jwt.dto.request.TokenRefreshRequest;
@@ -9,28 +10,36 @@ import com.jwt.auth.auth_jwt.entity.RefreshToken;
 import com.jwt.auth.auth_jwt.entity.Role;
 import com.jwt.auth.auth_jwt.entity.User;
 import com.jwt.auth.auth_jwt.exception.ResourceNotFoundException;
-import com.jwt.auth.auth_jwt.exception.TokenRefreshException;
 import com.jwt.auth.auth_jwt.repository.RoleRepository;
+import com.jwt.auth.auth_jwt.repository.UserJdbcRepository;
 import com.jwt.auth.auth_jwt.repository.UserRepository;
+import com.jwt.auth.auth_jwt.security.AuthEventPublisher;
+import com.jwt.auth.auth_jwt.security.CustomUserDetailsService;
 import com.jwt.auth.auth_jwt.security.JwtTokenProvider;
+import com.jwt.auth.auth_jwt.security.LoginAttemptLimiter;
+import com.jwt.auth.auth_jwt.security.RoleCatalog;
 import com.jwt.auth.auth_jwt.security.UserPrincipal;
+import com.jwt.auth.auth_jwt.security.UserPrincipalCache;
+import com.jwt.auth.auth_jwt.security.WrongPasswordException;
 import com.jwt.auth.auth_jwt.service.AuthService;
 import com.jwt.auth.auth_jwt.utils.Constants;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
@@ -41,18 +50,40 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider tokenProvider;
     private final RefreshTokenService refreshTokenService;
+    private final CustomUserDetailsService customUserDetailsService;
+    private final RoleCatalog roleCatalog;
+    private final LoginActivityRecorder loginActivityRecorder;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final UserJdbcRepository userJdbcRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final AuthEventPublisher authEventPublisher;
+    private final AppProperties appProperties;
 
     @Override
-    public JwtAuthenticationResponse login(LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsernameOrEmail(), loginRequest.getPassword()));
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+    public JwtAuthenticationResponse login(LoginRequest loginRequest, String clientIp) {
+        String usernameOrEmail = loginRequest.getUsernameOrEmail();
+        loginAttemptLimiter.checkAllowed(usernameOrEmail, clientIp);
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(usernameOrEmail, loginRequest.getPassword()));
+        } catch (BadCredentialsException ex) {
+            Long userId = ex instanceof WrongPasswordException wrongPassword ? wrongPassword.getUserId() : null;
+            boolean limitReached = loginAttemptLimiter.recordFailure(usernameOrEmail, userId, clientIp);
+            if (userId != null) {
+                loginActivityRecorder.recordFailure(userId);
+                if (limitReached) {
+                    lockAccount(userId);
+                }
+            }
+            throw ex;
+        }
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        loginAttemptLimiter.reset(usernameOrEmail, userPrincipal.getId());
+        loginActivityRecorder.recordSuccess(userPrincipal.getId());
         String accessToken = tokenProvider.generateToken(authentication);
         RefreshToken refreshToken = refreshTokenService.createRefreshToken(userPrincipal.getId());
-        List<String> roles = userPrincipal.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toList());
+        List<String> roles = List.copyOf(userPrincipal.getRoles());
         return JwtAuthenticationResponse.builder()
                 .accessToken(accessToken)
                 .refreshToken(refreshToken.getToken())
@@ -83,19 +114,9 @@ public class AuthServiceImpl implements AuthService {
                 .isEmailVerified(true)
                 .isAccountLocked(false)
                 .build();
-        Set<String> strRoles = signUpRequest.getRoles();
+        Set<String> strRoles = signUpRequest.getRoles() == null ? Set.of(Constants.ROLE_USER) : signUpRequest.getRoles();
         Set<Role> roles = new HashSet<>();
-        if (strRoles == null) {
-            Role userRole = roleRepository.findByName(Constants.ROLE_USER)
-                    .orElseThrow(() -> new ResourceNotFoundException("Role", "name", Constants.ROLE_USER));
-            roles.add(userRole);
-        } else {
-            strRoles.forEach(role -> {
-                Role adminRole = roleRepository.findByName(role)
-                        .orElseThrow(() -> new ResourceNotFoundException("Role", "name", role));
-                roles.add(adminRole);
-            });
-        }
+        strRoles.forEach(role -> roles.add(roleRepository.getReferenceById(roleCatalog.getByName(role).id())));
         user.setRoles(roles);
         return userRepository.save(user);
     }
@@ -103,22 +124,66 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public TokenRefreshResponse refreshToken(TokenRefreshRequest request) {
         String requestRefreshToken = request.getRefreshToken();
-        return refreshTokenService.findByToken(requestRefreshToken)
-                .map(refreshTokenService::verifyExpiration)
-                .map(RefreshToken::getUser)
-                .map(user -> {
-                    String token = tokenProvider.generateTokenFromUserId(user.getId());
-                    return TokenRefreshResponse.builder()
-                            .accessToken(token)
-                            .refreshToken(requestRefreshToken)
-                            .tokenType(Constants.TOKEN_PREFIX.trim())
-                            .build();
-                })
-                .orElseThrow(() -> new TokenRefreshException(requestRefreshToken, "Refresh token is not in database!"));
+        RefreshTokenService.RotatedRefreshToken rotated = refreshTokenService.rotate(requestRefreshToken);
+        String token = tokenProvider.generateToken(customUserDetailsService.loadUserById(rotated.userId()));
+        return TokenRefreshResponse.builder()
+                .accessToken(token)
+                .refreshToken(rotated.token())
+                .tokenType(Constants.TOKEN_PREFIX.trim())
+                .build();
     }
 
     @Override
-    public void logout(String refreshToken) {
+    public void logout(String refreshToken, String accessToken) {
+        // first, so a stale refresh token that fails below still leaves the bearer token revoked
+        if (accessToken != null) {
+            tokenProvider.revoke(accessToken);
+        }
         refreshTokenService.revokeToken(refreshToken);
     }
+
+    @Override
+    public int logoutAll(Long userId, String accessToken) {
+        int revoked = refreshTokenService.revokeAllByUserId(userId);
+        if (accessToken != null) {
+            tokenProvider.revoke(accessToken);
+        }
+        return revoked;
+    }
+
+    @Override
+    public int revokeSessions(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        return refreshTokenService.revokeAllByUserId(userId);
+    }
+
+    @Override
+    public void unlockAccount(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+        userJdbcRepository.unlockAccount(userId, LocalDateTime.now());
+        accountChanged(userId);
+        for (String login : List.of(user.getUsername(), user.getEmail())) {
+            loginAttemptLimiter.reset(login, userId);
+            authEventPublisher.loginFailuresReset(login);
+        }
+    }
+
+    private void lockAccount(Long userId) {
+        Duration lockDuration = appProperties.getLoginLimiter().getLockDuration();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lockedUntil = lockDuration.isZero() ? null : now.plus(lockDuration);
+        if (userJdbcRepository.lockAccount(userId, lockedUntil, now)) {
+            log.warn("Locked user {} after repeated failed logins until {}", userId,
+                    lockedUntil == null ? "an admin unlocks it" : lockedUntil);
+            accountChanged(userId);
+        }
+    }
+
+    private void accountChanged(Long userId) {
+        userPrincipalCache.evict(userId);
+        authEventPublisher.userChanged(userId);
+    }
 }
@@ -0,0 +1,109 @@
+package com.jwt.auth.auth_jwt.service.impl;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.repository.UserJdbcRepository;
+import com.jwt.auth.auth_jwt.repository.UserJdbcRepository.LoginActivity;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for {@code last_login_at} and the failed-login counters. Outcomes are coalesced
+ * per user in memory and flushed as one JDBC batch on an interval or once enough users are pending,
+ * so a hot account costs at most one UPDATE per flush and logins never wait on a row lock.
+ */
+@Slf4j
+@Component
+public class LoginActivityRecorder {
+
+    private final UserJdbcRepository userJdbcRepository;
+    private final TaskScheduler taskScheduler;
+    private final int flushThreshold;
+    private final Map<Long, LoginActivity> pending = new ConcurrentHashMap<>();
+    private final Lock flushLock = new ReentrantLock();
+    private final AtomicBoolean earlyFlushScheduled = new AtomicBoolean();
+
+    public LoginActivityRecorder(UserJdbcRepository userJdbcRepository, TaskScheduler taskScheduler,
+                                 AppProperties appProperties) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.taskScheduler = taskScheduler;
+        this.flushThreshold = appProperties.getLoginActivity().getFlushThreshold();
+    }
+
+    public void recordSuccess(Long userId) {
+        record(new LoginActivity(userId, LocalDateTime.now(), true, 0, null));
+    }
+
+    public void recordFailure(Long userId) {
+        record(new LoginActivity(userId, null, false, 1, LocalDateTime.now()));
+    }
+
+    private void record(LoginActivity activity) {
+        pending.merge(activity.userId(), activity, LoginActivity::followedBy);
+        // the batch runs on the scheduler, never on the login thread that filled the buffer
+        if (pending.size() >= flushThreshold && earlyFlushScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(() -> {
+                earlyFlushScheduled.set(false);
+                flush();
+            }, Instant.now());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.login-activity.flush-interval:PT5S}")
+    public void flush() {
+        if (pending.isEmpty() || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void drain() {
+        flushLock.lock();
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writePending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<LoginActivity> batch = new ArrayList<>(pending.size());
+        for (Long userId : pending.keySet()) {
+            LoginActivity activity = pending.remove(userId);
+            if (activity != null) {
+                batch.add(activity);
+            }
+        }
+        try {
+            userJdbcRepository.recordLoginActivity(batch);
+            log.debug("Recorded login activity for {} users", batch.size());
+        } catch (DataAccessException ex) {
+            // outcomes recorded meanwhile are newer than the failed batch
+            batch.forEach(activity -> pending.merge(activity.userId(), activity,
+                    (newer, failed) -> failed.followedBy(newer)));
+            log.warn("Could not record login activity for {} users, retrying on the next flush: {}",
+                    batch.size(), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.jwt.auth.auth_jwt.service.impl;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.config.JwtProperties;
+import com.jwt.auth.auth_jwt.repository.RefreshTokenJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+public class RefreshTokenCleanupTask {
+
+    // pg advisory lock key shared by every node, so only one of them sweeps at a time
+    private static final long CLEANUP_LOCK_KEY = 0x72745F7075726765L;
+
+    private final RefreshTokenJdbcRepository refreshTokenJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AppProperties.RefreshTokenCleanup config;
+    private final Duration revokedRetention;
+    private final Counter purgedCounter;
+    private final Timer sweepTimer;
+
+    public RefreshTokenCleanupTask(RefreshTokenJdbcRepository refreshTokenJdbcRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   AppProperties appProperties,
+                                   JwtProperties jwtProperties,
+                                   MeterRegistry meterRegistry) {
+        this.refreshTokenJdbcRepository = refreshTokenJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.config = appProperties.getRefreshTokenCleanup();
+        Duration lifetime = Duration.ofMillis(jwtProperties.getRefreshToken().getExpiration());
+        this.revokedRetention = config.getRevokedRetention() != null ? config.getRevokedRetention() : lifetime;
+        if (revokedRetention.compareTo(lifetime) < 0) {
+            log.warn("Revoked refresh tokens are purged after {}, before they expire ({}); replays after that are not "
+                    + "detected as reuse", revokedRetention, lifetime);
+        }
+        this.purgedCounter = Counter.builder("auth.refresh.tokens.purged")
+                .description("Expired or revoked refresh tokens deleted by the cleanup task")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("auth.refresh.tokens.sweep")
+                .description("Duration of a refresh token cleanup run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.refresh-token-cleanup.interval:PT1H}",
+            initialDelayString = "${app.refresh-token-cleanup.interval:PT1H}")
+    public void purge() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        sweepTimer.record(this::sweep);
+    }
+
+    private void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime revokedBefore = now.minus(revokedRetention);
+        int batchSize = config.getBatchSize();
+        long total = 0;
+        Integer purged;
+        do {
+            purged = transactionTemplate.execute(status -> refreshTokenJdbcRepository.tryAdvisoryLock(CLEANUP_LOCK_KEY)
+                    ? refreshTokenJdbcRepository.purgeBatch(now, revokedBefore, batchSize)
+                    : null);
+            if (purged == null) {
+                log.debug("Refresh token cleanup is running on another node, skipping");
+                break;
+            }
+            purgedCounter.increment(purged);
+            total += purged;
+        } while (purged == batchSize);
+        if (total > 0) {
+            log.info("Purged {} expired or revoked refresh tokens", total);
+        }
+    }
+}
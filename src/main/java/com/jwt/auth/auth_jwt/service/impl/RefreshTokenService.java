@@ -1,20 +1,27 @@
 package com.jwt.auth.auth_jwt.service.impl;
 
+import com.jwt.auth.auth_jwt.config.AppProperties;
 import com.jwt.auth.auth_jwt.entity.RefreshToken;
 import com.jwt.auth.auth_jwt.entity.User;
 import com.jwt.auth.auth_jwt.exception.ResourceNotFoundException;
 import com.jwt.auth.auth_jwt.exception.TokenRefreshException;
+import com.jwt.auth.auth_jwt.repository.RefreshTokenJdbcRepository;
 import com.jwt.auth.auth_jwt.repository.RefreshTokenRepository;
 import com.jwt.auth.auth_jwt.repository.UserRepository;
-import com.jwt.auth.auth_jwt.security.JwtTokenProvider;
+import com.jwt.auth.auth_jwt.security.AuthEventPublisher;
+import com.jwt.auth.auth_jwt.security.UserPrincipalCache;
+import com.jwt.auth.auth_jwt.utils.TokenUtils;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class RefreshTokenService {
@@ -23,44 +30,97 @@ public class RefreshTokenService {
     private Long refreshTokenDurationMs;
 
     private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenJdbcRepository refreshTokenJdbcRepository;
     private final UserRepository userRepository;
-    private final JwtTokenProvider tokenProvider;
+    private final UserPrincipalCache userPrincipalCache;
+    private final AppProperties appProperties;
+    private final AuthEventPublisher authEventPublisher;
 
     public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+        return refreshTokenRepository.findByTokenHash(TokenUtils.sha256(token))
+                .map(refreshToken -> {
+                    refreshToken.setToken(token);
+                    return refreshToken;
+                });
     }
 
     @Transactional
     public RefreshToken createRefreshToken(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+        // otherwise concurrent logins miss each other's uncommitted token and overshoot the cap
+        if (appProperties.getSession().getMaxActivePerUser() > 0) {
+            refreshTokenJdbcRepository.lockUserSessions(userId);
+        }
         RefreshToken refreshToken = new RefreshToken();
         refreshToken.setUser(user);
+        refreshToken.setFamilyId(UUID.randomUUID());
         refreshToken.setExpiresAt(LocalDateTime.now().plusNanos(refreshTokenDurationMs * 1000000));
-        refreshToken.setToken(tokenProvider.generateRefreshToken(userId));
+        String token = TokenUtils.generateOpaqueToken();
+        refreshToken.setTokenHash(TokenUtils.sha256(token));
         refreshToken.setRevoked(false);
-        return refreshTokenRepository.save(refreshToken);
+        RefreshToken saved = refreshTokenRepository.save(refreshToken);
+        saved.setToken(token);
+        enforceSessionLimit(userId);
+        return saved;
+    }
+
+    @Transactional(noRollbackFor = TokenRefreshException.class)
+    public RotatedRefreshToken rotate(String token) {
+        LocalDateTime now = LocalDateTime.now();
+        String newToken = TokenUtils.generateOpaqueToken();
+        byte[] presentedHash = TokenUtils.sha256(token);
+        Optional<Long> userId = refreshTokenJdbcRepository.rotate(
+                presentedHash, TokenUtils.sha256(newToken), now, now.plusNanos(refreshTokenDurationMs * 1000000));
+        if (userId.isPresent()) {
+            return new RotatedRefreshToken(userId.get(), newToken);
+        }
+        RefreshToken presented = refreshTokenRepository.findByTokenHash(presentedHash)
+                .orElseThrow(() -> new TokenRefreshException(token, "Refresh token is not in database!"));
+        if (presented.getExpiresAt().isBefore(now)) {
+            throw new TokenRefreshException(token, "Refresh token was expired. Please make a new signin request");
+        }
+        if (presented.getRotatedAt() == null) {
+            // revoked by logout, the session cap or an admin, so there is no successor to protect
+            throw new TokenRefreshException(token, "Refresh token was revoked. Please make a new signin request");
+        }
+        if (presented.getRotatedAt().isAfter(now.minus(appProperties.getSession().getRotationGrace()))) {
+            throw new TokenRefreshException(token, "Refresh token was just rotated. Please use the latest refresh token");
+        }
+        int revoked = refreshTokenRepository.revokeFamily(presented.getFamilyId(), now);
+        log.warn("Refresh token reuse detected for user {}, revoked {} tokens of its family",
+                presented.getUser().getId(), revoked);
+        throw new TokenRefreshException(token, "Refresh token was already used. Please make a new signin request");
     }
 
-    public RefreshToken verifyExpiration(RefreshToken token) {
-        if (token.getExpiresAt().isBefore(LocalDateTime.now())) {
-            refreshTokenRepository.delete(token);
-            throw new TokenRefreshException(token.getToken(), "Refresh token was expired. Please make a new signin request");
+    private void enforceSessionLimit(Long userId) {
+        int maxActive = appProperties.getSession().getMaxActivePerUser();
+        if (maxActive <= 0) {
+            return;
+        }
+        int revoked = refreshTokenJdbcRepository.revokeOldestActive(userId, maxActive, LocalDateTime.now());
+        if (revoked > 0) {
+            log.debug("Revoked {} oldest sessions of user {} to stay within {} active sessions", revoked, userId, maxActive);
         }
-        return token;
     }
 
     @Transactional
-    public void deleteByUserId(Long userId) {
-        refreshTokenRepository.revokeAllUserTokens(userId);
+    public int revokeAllByUserId(Long userId) {
+        int revoked = refreshTokenRepository.revokeAllUserTokens(userId);
+        userPrincipalCache.evict(userId);
+        authEventPublisher.userChanged(userId);
+        return revoked;
     }
 
     @Transactional
     public void revokeToken(String token) {
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(token)
+        RefreshToken refreshToken = findByToken(token)
                 .orElseThrow(() -> new ResourceNotFoundException("RefreshToken", "token", token));
         refreshToken.setRevoked(true);
         refreshToken.setRevokedAt(LocalDateTime.now());
         refreshTokenRepository.save(refreshToken);
     }
+
+    public record RotatedRefreshToken(Long userId, String token) {
+    }
 }
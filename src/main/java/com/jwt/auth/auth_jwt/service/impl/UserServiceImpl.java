@@ -1,47 +1,117 @@
 package com.jwt.auth.auth_jwt.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.dto.response.CursorPageResponse;
 import com.jwt.auth.auth_jwt.dto.response.UserResponse;
-import com.jwt.auth.auth_jwt.entity.Role;
-import com.jwt.auth.auth_jwt.entity.Permission;
+import com.jwt.auth.auth_jwt.repository.UserExportRepository;
 import com.jwt.auth.auth_jwt.repository.UserRepository;
+import com.jwt.auth.auth_jwt.repository.projection.UserAuthority;
+import com.jwt.auth.auth_jwt.repository.projection.UserSummary;
+import com.jwt.auth.auth_jwt.security.RoleCatalog;
 import com.jwt.auth.auth_jwt.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final String ROLE_PREFIX = "ROLE_";
+
     private final UserRepository userRepository;
+    private final AppProperties appProperties;
+    private final UserExportRepository userExportRepository;
+    private final ObjectMapper objectMapper;
+    private final RoleCatalog roleCatalog;
 
     @Override
     @Transactional(readOnly = true)
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
+    public CursorPageResponse<UserResponse> getUsers(Long cursor, Integer size, String role, Boolean verified) {
+        int pageSize = resolvePageSize(size);
+        List<UserSummary> summaries = userRepository.findSummariesAfter(
+                cursor == null ? 0L : cursor, verified, normalizeRole(role), Limit.of(pageSize + 1));
+        boolean hasNext = summaries.size() > pageSize;
+        if (hasNext) {
+            summaries = summaries.subList(0, pageSize);
+        }
+        Map<Long, Set<String>> roles = new HashMap<>();
+        if (!summaries.isEmpty()) {
+            List<Long> userIds = summaries.stream().map(UserSummary::id).toList();
+            for (UserAuthority authority : userRepository.findAuthoritiesByUserIds(userIds)) {
+                roles.computeIfAbsent(authority.userId(), id -> new HashSet<>()).add(authority.roleName());
+            }
+        }
+        List<UserResponse> items = summaries.stream()
                 .map(user -> {
-                    Set<String> roles = user.getRoles().stream()
-                            .map(Role::getName)
-                            .collect(Collectors.toSet());
-                    Set<String> permissions = user.getRoles().stream()
-                            .flatMap(role -> role.getPermissions().stream())
-                            .map(Permission::getName)
-                            .collect(Collectors.toSet());
+                    Set<String> userRoles = roles.getOrDefault(user.id(), Set.of());
                     return UserResponse.builder()
-                            .id(user.getId())
-                            .username(user.getUsername())
-                            .email(user.getEmail())
-                            .firstName(user.getFirstName())
-                            .lastName(user.getLastName())
-                            .enabled(!user.isAccountLocked())
-                            .roles(roles)
-                            .permissions(permissions)
+                            .id(user.id())
+                            .username(user.username())
+                            .email(user.email())
+                            .firstName(user.firstName())
+                            .lastName(user.lastName())
+                            .enabled(!user.accountLocked())
+                            .roles(userRoles)
+                            .permissions(roleCatalog.getPermissions(userRoles))
                             .build();
                 })
-                .collect(Collectors.toList());
+                .toList();
+        return CursorPageResponse.<UserResponse>builder()
+                .items(items)
+                .size(items.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? items.get(items.size() - 1).getId() : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        try {
+            userExportRepository.streamUsers(user -> {
+                user.setPermissions(roleCatalog.getPermissions(user.getRoles()));
+                try {
+                    outputStream.write(writer.writeValueAsBytes(user));
+                    outputStream.write('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        outputStream.flush();
+    }
+
+    private int resolvePageSize(Integer size) {
+        AppProperties.Pagination pagination = appProperties.getPagination();
+        if (size == null || size < 1) {
+            return pagination.getDefaultPageSize();
+        }
+        return Math.min(size, pagination.getMaxPageSize());
+    }
+
+    private static String normalizeRole(String role) {
+        if (role == null || role.isBlank()) {
+            return null;
+        }
+        String name = role.trim().toUpperCase(Locale.ROOT);
+        return name.startsWith(ROLE_PREFIX) ? name : ROLE_PREFIX + name;
     }
 }
@@ -11,6 +11,13 @@ public class Constants {
     public static final String AUTHORIZATION_HEADER = "Authorization";
     public static final String TOKEN_PREFIX = "Bearer ";
 
+    // JWT claims
+    public static final String CLAIM_USERNAME = "username";
+    public static final String CLAIM_EMAIL = "email";
+    public static final String CLAIM_EMAIL_VERIFIED = "email_verified";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_PERMISSIONS = "permissions";
+
     // Roles
     public static final String ROLE_USER = "ROLE_USER";
     public static final String ROLE_ADMIN = "ROLE_ADMIN";
@@ -0,0 +1,34 @@
+package com.jwt.auth.auth_jwt.utils;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+public class PemUtils {
+
+    public static PrivateKey readPrivateKey(String pem, String keyAlgorithm) throws GeneralSecurityException {
+        return KeyFactory.getInstance(keyAlgorithm).generatePrivate(new PKCS8EncodedKeySpec(decode(pem, "PRIVATE KEY")));
+    }
+
+    public static PublicKey readPublicKey(String pem, String keyAlgorithm) throws GeneralSecurityException {
+        return KeyFactory.getInstance(keyAlgorithm).generatePublic(new X509EncodedKeySpec(decode(pem, "PUBLIC KEY")));
+    }
+
+    private static byte[] decode(String pem, String type) {
+        String begin = "-----BEGIN " + type + "-----";
+        String end = "-----END " + type + "-----";
+        int start = pem.indexOf(begin);
+        int stop = pem.indexOf(end);
+        if (start < 0 || stop < start) {
+            throw new IllegalArgumentException("Expected a PEM encoded " + type);
+        }
+        return Base64.getMimeDecoder().decode(pem.substring(start + begin.length(), stop));
+    }
+
+    private PemUtils() {
+    } // Prevent instantiation
+}
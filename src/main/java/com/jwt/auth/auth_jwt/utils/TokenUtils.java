@@ -0,0 +1,39 @@
+package com.jwt.auth.auth_jwt.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+public class TokenUtils {
+
+    private static final int OPAQUE_TOKEN_BYTES = 32;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final Base64.Encoder URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    public static String generateOpaqueToken() {
+        byte[] bytes = new byte[OPAQUE_TOKEN_BYTES];
+        SECURE_RANDOM.nextBytes(bytes);
+        return URL_ENCODER.encodeToString(bytes);
+    }
+
+    public static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    public static String resolveBearerToken(String authorizationHeader) {
+        if (authorizationHeader != null && authorizationHeader.startsWith(Constants.TOKEN_PREFIX)) {
+            String token = authorizationHeader.substring(Constants.TOKEN_PREFIX.length());
+            return token.isBlank() ? null : token;
+        }
+        return null;
+    }
+
+    private TokenUtils() {
+    } // Prevent instantiation
+}
@@ -12,6 +12,7 @@ CREATE TABLE IF NOT EXISTS users
     phone_number          VARCHAR(20),
     is_email_verified     BOOLEAN               DEFAULT FALSE,
     is_account_locked     BOOLEAN               DEFAULT FALSE,
+    locked_until          TIMESTAMP,
     failed_login_attempts INTEGER               DEFAULT 0,
     last_failed_login_at  TIMESTAMP,
     created_at            TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
@@ -118,18 +119,29 @@ WHERE r.name = 'ROLE_SUPER_ADMIN';
 CREATE TABLE IF NOT EXISTS refresh_tokens
 (
     id          BIGSERIAL PRIMARY KEY,
-    token       VARCHAR(500) NOT NULL UNIQUE,
+    token_hash  BYTEA        NOT NULL UNIQUE,
     user_id     BIGINT       NOT NULL,
+    family_id   UUID         NOT NULL,
     expires_at  TIMESTAMP    NOT NULL,
     is_revoked  BOOLEAN               DEFAULT FALSE,
     revoked_at  TIMESTAMP,
+    rotated_at  TIMESTAMP,
     device_info VARCHAR(255),
     ip_address  VARCHAR(45),
     created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT chk_refresh_tokens_token_hash CHECK (octet_length(token_hash) = 32)
 );
 
-CREATE INDEX idx_refresh_tokens_token ON refresh_tokens (token);
 CREATE INDEX idx_refresh_tokens_user_id ON refresh_tokens (user_id);
+CREATE INDEX idx_refresh_tokens_family_id ON refresh_tokens (family_id);
 CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
 CREATE INDEX idx_refresh_tokens_is_revoked ON refresh_tokens (is_revoked);
+
+CREATE TABLE IF NOT EXISTS revoked_access_tokens
+(
+    jti        VARCHAR(36) PRIMARY KEY,
+    expires_at TIMESTAMP   NOT NULL,
+    revoked_at TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_revoked_access_tokens_expires_at ON revoked_access_tokens (expires_at);
@@ -0,0 +1,50 @@
+-------------------------------------------
+--- UPGRADE OF AN EXISTING DATABASE
+--- Brings a schema created by an earlier ddl.sql up to date; safe to run more than once.
+--- Refresh tokens used to be stored in plain text and cannot be converted to hashes, so the
+--- first run deletes every refresh token and users have to sign in again.
+-------------------------------------------
+
+-- USERS: lock expiry
+ALTER TABLE users ADD COLUMN IF NOT EXISTS locked_until TIMESTAMP;
+
+-- REFRESH TOKENS: hashed tokens, rotation families and the rotation timestamp
+DO
+$$
+    BEGIN
+        IF NOT EXISTS (SELECT 1
+                       FROM information_schema.columns
+                       WHERE table_schema = current_schema()
+                         AND table_name = 'refresh_tokens'
+                         AND column_name = 'token_hash') THEN
+            DELETE FROM refresh_tokens;
+        END IF;
+    END
+$$;
+
+DROP INDEX IF EXISTS idx_refresh_tokens_token;
+ALTER TABLE refresh_tokens DROP COLUMN IF EXISTS token;
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS token_hash BYTEA NOT NULL UNIQUE;
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS family_id UUID NOT NULL;
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS rotated_at TIMESTAMP;
+
+DO
+$$
+    BEGIN
+        IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'chk_refresh_tokens_token_hash') THEN
+            ALTER TABLE refresh_tokens
+                ADD CONSTRAINT chk_refresh_tokens_token_hash CHECK (octet_length(token_hash) = 32);
+        END IF;
+    END
+$$;
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family_id ON refresh_tokens (family_id);
+
+-- REVOKED ACCESS TOKENS: denylist for logout
+CREATE TABLE IF NOT EXISTS revoked_access_tokens
+(
+    jti        VARCHAR(36) PRIMARY KEY,
+    expires_at TIMESTAMP   NOT NULL,
+    revoked_at TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_revoked_access_tokens_expires_at ON revoked_access_tokens (expires_at);
@@ -0,0 +1,19 @@
+package com.jwt.auth.auth_jwt;
+
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base for tests of PostgreSQL-specific SQL (data-modifying CTEs, SKIP LOCKED, advisory locks) that H2
+ * cannot run. The schema comes from {@code ddl.sql}; tests are skipped when Docker is unavailable.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresTestSupport {
+
+    @Container
+    @ServiceConnection
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withInitScript("ddl.sql");
+}
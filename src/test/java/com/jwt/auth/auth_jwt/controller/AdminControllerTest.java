@@ -0,0 +1,53 @@
+package com.jwt.auth.auth_jwt.controller;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.security.RoleCatalog;
+import com.jwt.auth.auth_jwt.service.AuthService;
+import com.jwt.auth.auth_jwt.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AdminControllerTest {
+
+    @Test
+    void streamsTheExportWithItsOwnAsyncTimeout() throws Exception {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getExport().setTimeout(Duration.ofMinutes(45));
+        UserService userService = mock(UserService.class);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(userService).exportUsers(any());
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new AdminController(
+                userService, mock(RoleCatalog.class), mock(AuthService.class), appProperties))
+                .setAsyncRequestTimeout(30_000)
+                .build();
+
+        MvcResult result = mockMvc.perform(get("/api/v1/admin/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(45).toMillis());
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+}
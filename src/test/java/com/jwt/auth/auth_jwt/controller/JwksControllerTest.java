@@ -0,0 +1,52 @@
+package com.jwt.auth.auth_jwt.controller;
+
+import com.jwt.auth.auth_jwt.security.JwtSigningKeys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class JwksControllerTest {
+
+    private static final String ETAG = "\"abc\"";
+    private static final String JWKS = "{\"keys\":[]}";
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        JwtSigningKeys signingKeys = mock(JwtSigningKeys.class);
+        when(signingKeys.getJwksETag()).thenReturn(ETAG);
+        when(signingKeys.getJwks()).thenReturn(JWKS.getBytes(StandardCharsets.UTF_8));
+        mockMvc = MockMvcBuilders.standaloneSetup(new JwksController(signingKeys)).build();
+    }
+
+    @Test
+    void servesTheKeySetWithItsETag() throws Exception {
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().string(JWKS));
+    }
+
+    @Test
+    void answersNotModifiedForListsAndWeakValidators() throws Exception {
+        for (String ifNoneMatch : new String[]{ETAG, "\"old\", " + ETAG, "W/" + ETAG}) {
+            mockMvc.perform(get("/.well-known/jwks.json").header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, ETAG));
+        }
+        mockMvc.perform(get("/.well-known/jwks.json").header(HttpHeaders.IF_NONE_MATCH, "\"old\""))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,83 @@
+package com.jwt.auth.auth_jwt.repository;
+
+import com.jwt.auth.auth_jwt.PostgresTestSupport;
+import com.jwt.auth.auth_jwt.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(UserJdbcRepository.class)
+class UserJdbcRepositoryTest extends PostgresTestSupport {
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM users");
+        userId = userRepository.save(User.builder()
+                .username("alice")
+                .email("alice@example.com")
+                .password("secret")
+                .build()).getId();
+    }
+
+    @Test
+    void doesNotShortenARunningLock() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(userJdbcRepository.lockAccount(userId, null, now)).isTrue();
+
+        assertThat(userJdbcRepository.lockAccount(userId, now.plusMinutes(30), now)).isFalse();
+        assertThat(user().getLockedUntil()).isNull();
+    }
+
+    @Test
+    void relocksOnceTheLastLockHasExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        userJdbcRepository.lockAccount(userId, now.minusMinutes(1), now.minusMinutes(31));
+
+        assertThat(userJdbcRepository.lockAccount(userId, now.plusMinutes(30), now)).isTrue();
+        assertThat(user().getLockedUntil()).isAfter(now);
+    }
+
+    @Test
+    void unlockResetsTheFailedLoginCount() {
+        LocalDateTime now = LocalDateTime.now();
+        userJdbcRepository.recordLoginActivity(List.of(
+                new UserJdbcRepository.LoginActivity(userId, null, false, 5, now)));
+        userJdbcRepository.lockAccount(userId, now.plusMinutes(30), now);
+
+        assertThat(userJdbcRepository.unlockAccount(userId, now)).isTrue();
+
+        User user = user();
+        assertThat(user.isAccountLocked()).isFalse();
+        assertThat(user.getLockedUntil()).isNull();
+        assertThat(user.getFailedLoginAttempts()).isZero();
+    }
+
+    private User user() {
+        return userRepository.findById(userId).orElseThrow();
+    }
+}
@@ -0,0 +1,118 @@
+package com.jwt.auth.auth_jwt.repository;
+
+import com.jwt.auth.auth_jwt.entity.Permission;
+import com.jwt.auth.auth_jwt.entity.Role;
+import com.jwt.auth.auth_jwt.entity.User;
+import com.jwt.auth.auth_jwt.repository.projection.UserSummary;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Role userRole;
+    private Role adminRole;
+
+    @BeforeEach
+    void setUp() {
+        Permission read = entityManager.persist(permission("USER_READ", "READ"));
+        Permission write = entityManager.persist(permission("USER_WRITE", "WRITE"));
+        userRole = entityManager.persist(Role.builder().name("ROLE_USER").permissions(Set.of(read)).build());
+        adminRole = entityManager.persist(Role.builder().name("ROLE_ADMIN").permissions(Set.of(read, write)).build());
+    }
+
+    @Test
+    void userPageWithRolesUsesTwoStatementsRegardlessOfPageSize() {
+        persistUsers(5);
+        assertThat(countStatements(() -> loadUserPage(5))).isEqualTo(2);
+
+        persistUsers(50);
+        assertThat(countStatements(() -> loadUserPage(55))).isEqualTo(2);
+    }
+
+    @Test
+    void findWithRolesByUsernameLoadsRolesInOneStatement() {
+        persistUsers(3);
+        long statements = countStatements(() -> {
+            User user = userRepository.findWithRolesByUsername("user1").orElseThrow();
+            assertThat(user.getRoles()).extracting(Role::getName).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+        });
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @Test
+    void findSummariesAfterPagesByIdAndAppliesFilters() {
+        persistUsers(5);
+        entityManager.flush();
+
+        List<UserSummary> firstPage = userRepository.findSummariesAfter(0L, null, null, Limit.of(2));
+        assertThat(firstPage).extracting(UserSummary::username).containsExactly("user0", "user1");
+
+        List<UserSummary> secondPage = userRepository.findSummariesAfter(
+                firstPage.get(1).id(), null, "ROLE_ADMIN", Limit.of(10));
+        assertThat(secondPage).extracting(UserSummary::username).containsExactly("user2", "user3", "user4");
+
+        assertThat(userRepository.findSummariesAfter(0L, true, null, Limit.of(10))).isEmpty();
+        assertThat(userRepository.findSummariesAfter(0L, null, "ROLE_MODERATOR", Limit.of(10))).isEmpty();
+    }
+
+    private void loadUserPage(int size) {
+        List<Long> userIds = userRepository.findSummariesAfter(0L, null, null, Limit.of(size)).stream()
+                .map(UserSummary::id)
+                .toList();
+        assertThat(userIds).hasSize(size);
+        assertThat(userRepository.findAuthoritiesByUserIds(userIds)).hasSize(size * 2);
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void persistUsers(int count) {
+        long offset = userRepository.count();
+        for (long i = offset; i < offset + count; i++) {
+            User user = User.builder()
+                    .username("user" + i)
+                    .email("user" + i + "@example.com")
+                    .password("secret")
+                    .build();
+            user.setRoles(Set.of(userRole, adminRole));
+            entityManager.persist(user);
+        }
+    }
+
+    private static Permission permission(String name, String action) {
+        return Permission.builder().name(name).resource("USER").action(action).build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.repository.RevokedAccessTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AccessTokenDenylistTest {
+
+    private RevokedAccessTokenRepository repository;
+    private AuthEventPublisher publisher;
+    private AccessTokenDenylist denylist;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RevokedAccessTokenRepository.class);
+        publisher = mock(AuthEventPublisher.class);
+        denylist = new AccessTokenDenylist(repository, publisher, new AppProperties());
+    }
+
+    @Test
+    void revokePersistsPublishesAndDeniesTheJti() {
+        Instant expiresAt = Instant.now().plus(15, ChronoUnit.MINUTES);
+
+        denylist.revoke("jti-1", expiresAt);
+
+        assertThat(denylist.isRevoked("jti-1")).isTrue();
+        assertThat(denylist.isRevoked("jti-2")).isFalse();
+        verify(repository).save(eq("jti-1"), any(LocalDateTime.class));
+        verify(publisher).accessTokenRevoked("jti-1", expiresAt);
+    }
+
+    @Test
+    void revokeIgnoresAlreadyExpiredTokens() {
+        denylist.revoke("jti-1", Instant.now().minusSeconds(1));
+
+        assertThat(denylist.isRevoked("jti-1")).isFalse();
+        verify(repository, never()).save(any(), any());
+    }
+
+    @Test
+    void cleanupDropsExpiredEntriesAndKeepsLiveOnes() {
+        denylist.add("expired", Instant.now().minusSeconds(1));
+        denylist.add("live", Instant.now().plus(15, ChronoUnit.MINUTES));
+
+        denylist.cleanup();
+
+        assertThat(denylist.isRevoked("expired")).isFalse();
+        assertThat(denylist.isRevoked("live")).isTrue();
+        verify(repository).deleteExpired(any(LocalDateTime.class));
+    }
+
+    @Test
+    void revocationsRacingAFilterRebuildAreNeverLost() throws Exception {
+        Instant live = Instant.now().plus(15, ChronoUnit.MINUTES);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            Future<?> rebuilder = executor.submit(() -> {
+                while (running.get()) {
+                    // an expired entry makes every cleanup rebuild the filter
+                    denylist.add(UUID.randomUUID().toString(), Instant.now().minusSeconds(1));
+                    denylist.cleanup();
+                }
+            });
+            // a lost entry is restored by the next rebuild, so each jti is checked right after it is added
+            List<Future<Long>> writers = IntStream.range(0, 4)
+                    .mapToObj(i -> executor.submit(() -> IntStream.range(0, 50_000)
+                            .mapToObj(n -> UUID.randomUUID().toString())
+                            .filter(jti -> {
+                                denylist.add(jti, live);
+                                return !denylist.isRevoked(jti);
+                            })
+                            .count()))
+                    .toList();
+
+            for (Future<Long> writer : writers) {
+                assertThat(writer.get(60, TimeUnit.SECONDS)).isZero();
+            }
+            running.set(false);
+            rebuilder.get(30, TimeUnit.SECONDS);
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+    }
+}
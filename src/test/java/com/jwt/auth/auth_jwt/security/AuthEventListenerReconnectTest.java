@@ -0,0 +1,64 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.PostgresTestSupport;
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuthEventListenerReconnectTest extends PostgresTestSupport {
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private AuthEventListener listener;
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+    }
+
+    @Test
+    void retriesAFailedResyncAndKeepsApplyingEvents() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getEvents().setReconnectDelay(Duration.ofMillis(50));
+        AuthEventPublisher publisher = mock(AuthEventPublisher.class);
+        when(publisher.getNodeId()).thenReturn("local-node");
+        UserPrincipalCache userPrincipalCache = mock(UserPrincipalCache.class);
+        AccessTokenDenylist accessTokenDenylist = mock(AccessTokenDenylist.class);
+        RoleCatalog roleCatalog = mock(RoleCatalog.class);
+        doThrow(new QueryTimeoutException("timeout")).doNothing().when(roleCatalog).refresh();
+        listener = new AuthEventListener(dataSourceProperties, appProperties, publisher, userPrincipalCache,
+                accessTokenDenylist, roleCatalog, mock(LoginAttemptLimiter.class));
+
+        listener.start();
+
+        verify(roleCatalog, timeout(10_000).times(2)).refresh();
+        verify(accessTokenDenylist, timeout(10_000)).load();
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", appProperties.getEvents().getChannel(), "remote-node|user|7");
+        verify(userPrincipalCache, timeout(10_000)).evict(7L);
+        verify(accessTokenDenylist, times(1)).load();
+    }
+}
@@ -0,0 +1,75 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AuthEventListenerTest {
+
+    private static final String REMOTE_NODE = "remote-node";
+
+    private AuthEventPublisher publisher;
+    private UserPrincipalCache userPrincipalCache;
+    private AccessTokenDenylist accessTokenDenylist;
+    private RoleCatalog roleCatalog;
+    private LoginAttemptLimiter loginAttemptLimiter;
+    private AuthEventListener listener;
+
+    @BeforeEach
+    void setUp() {
+        publisher = mock(AuthEventPublisher.class);
+        when(publisher.getNodeId()).thenReturn("local-node");
+        userPrincipalCache = mock(UserPrincipalCache.class);
+        accessTokenDenylist = mock(AccessTokenDenylist.class);
+        roleCatalog = mock(RoleCatalog.class);
+        loginAttemptLimiter = mock(LoginAttemptLimiter.class);
+        listener = listener(new AppProperties());
+    }
+
+    @Test
+    void appliesEventsFromOtherNodes() {
+        listener.apply(REMOTE_NODE + "|user|7");
+        listener.apply(REMOTE_NODE + "|roles|");
+        listener.apply(REMOTE_NODE + "|jti|abc|1700000000");
+        listener.apply(REMOTE_NODE + "|login|odd|name");
+
+        verify(userPrincipalCache).evict(7L);
+        verify(userPrincipalCache).evictAll();
+        verify(roleCatalog).refresh();
+        verify(accessTokenDenylist).add("abc", Instant.ofEpochSecond(1_700_000_000L));
+        verify(loginAttemptLimiter).reset("odd|name");
+    }
+
+    @Test
+    void ignoresItsOwnAndMalformedEvents() {
+        listener.apply("local-node|user|7");
+        listener.apply(REMOTE_NODE + "|user|not-a-number");
+        listener.apply("garbage");
+
+        verifyNoInteractions(accessTokenDenylist, roleCatalog, loginAttemptLimiter);
+        verify(userPrincipalCache, never()).evict(7L);
+    }
+
+    @Test
+    void rejectsAChannelNameThatIsNotAnIdentifier() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getEvents().setChannel("auth; DROP TABLE users");
+
+        assertThatThrownBy(() -> listener(appProperties)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private AuthEventListener listener(AppProperties appProperties) {
+        return new AuthEventListener(new DataSourceProperties(), appProperties, publisher, userPrincipalCache,
+                accessTokenDenylist, roleCatalog, loginAttemptLimiter);
+    }
+}
@@ -0,0 +1,83 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthEventPublisherTest {
+
+    private DataSource dataSource;
+    private PreparedStatement statement;
+    private AuthEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        publisher = new AuthEventPublisher(dataSource, new AppProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void notifiesImmediatelyOutsideATransaction() throws SQLException {
+        publisher.userChanged(7L);
+
+        verify(statement).setString(1, "auth_events");
+        verify(statement).setString(2, publisher.getNodeId() + "|user|7");
+        verify(statement).execute();
+    }
+
+    @Test
+    void notifiesOnlyAfterTheSurroundingTransactionCommits() throws SQLException {
+        TransactionSynchronizationManager.initSynchronization();
+
+        publisher.userChanged(7L);
+        verify(dataSource, never()).getConnection();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(statement).execute();
+    }
+
+    @Test
+    void dropsTheNotificationWhenTheTransactionRollsBack() throws SQLException {
+        TransactionSynchronizationManager.initSynchronization();
+
+        publisher.rolesChanged();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(dataSource, never()).getConnection();
+    }
+
+    @Test
+    void swallowsNotifyFailures() throws SQLException {
+        when(statement.execute()).thenThrow(new SQLException("connection reset"));
+
+        assertThatCode(() -> publisher.userChanged(7L)).doesNotThrowAnyException();
+    }
+}
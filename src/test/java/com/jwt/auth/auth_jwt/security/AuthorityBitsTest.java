@@ -0,0 +1,45 @@
+package com.jwt.auth.auth_jwt.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthorityBitsTest {
+
+    private final AuthorityBits authorityBits = new AuthorityBits();
+
+    @Test
+    void checksAuthoritiesBeyondTheBitCapacityByName() {
+        List<String> permissions = IntStream.range(0, 80).mapToObj(i -> "PERMISSION_" + i).toList();
+        authorityBits.maskOf(permissions);
+
+        UserPrincipal overflowed = principal(List.of("ROLE_USER"), List.of("PERMISSION_1", "PERMISSION_79"));
+        UserPrincipal regular = principal(List.of("ROLE_USER"), List.of("PERMISSION_1"));
+
+        assertThat(overflowed.getAuthorityMask() & AuthorityBits.OVERFLOW).isNotZero();
+        assertThat(authorityBits.hasAuthority(overflowed, "PERMISSION_79")).isTrue();
+        assertThat(authorityBits.hasAuthority(overflowed, "PERMISSION_78")).isFalse();
+        assertThat(authorityBits.hasAuthority(overflowed, "PERMISSION_1")).isTrue();
+        assertThat(authorityBits.hasAnyAuthority(regular, "PERMISSION_79", "ROLE_ADMIN")).isFalse();
+        assertThat(authorityBits.hasAnyAuthority(regular, "PERMISSION_79", "ROLE_USER")).isTrue();
+        assertThat(overflowed.getAuthorities()).map(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_USER", "PERMISSION_1", "PERMISSION_79");
+    }
+
+    @Test
+    void sharesAuthorityListsBetweenEqualMasks() {
+        UserPrincipal first = principal(List.of("ROLE_ADMIN"), List.of("USER_READ"));
+        UserPrincipal second = principal(List.of("ROLE_ADMIN"), List.of("USER_READ"));
+
+        assertThat(second.getAuthorities()).isSameAs(first.getAuthorities());
+        assertThat(authorityBits.hasAuthority(first.getAuthorityMask(), "USER_READ")).isTrue();
+    }
+
+    private UserPrincipal principal(List<String> roles, List<String> permissions) {
+        return UserPrincipal.create(1L, "alice", "alice@example.com", true, roles, permissions, authorityBits);
+    }
+}
@@ -0,0 +1,53 @@
+package com.jwt.auth.auth_jwt.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BitwiseMethodSecurityExpressionRootTest {
+
+    private final AuthorityBits authorityBits = new AuthorityBits();
+
+    @Test
+    void checksRolesAndAuthoritiesAgainstTheMask() {
+        BitwiseMethodSecurityExpressionRoot root = root(List.of("ROLE_ADMIN"), List.of("USER_READ"));
+
+        assertThat(root.hasRole("ADMIN")).isTrue();
+        assertThat(root.hasAnyRole("USER", "ROLE_ADMIN")).isTrue();
+        assertThat(root.hasRole("USER")).isFalse();
+        assertThat(root.hasAuthority("USER_READ")).isTrue();
+        assertThat(root.hasAnyAuthority("USER_WRITE", "USER_DELETE")).isFalse();
+    }
+
+    @Test
+    void usesTheConfiguredRolePrefix() {
+        BitwiseMethodSecurityExpressionRoot root = root(List.of("GROUP_ADMIN"), List.of());
+        root.setDefaultRolePrefix("GROUP_");
+
+        assertThat(root.hasRole("ADMIN")).isTrue();
+        assertThat(root.hasRole("ROLE_ADMIN")).isFalse();
+    }
+
+    @Test
+    void honoursARoleHierarchy() {
+        RoleHierarchyImpl roleHierarchy = new RoleHierarchyImpl();
+        roleHierarchy.setHierarchy("ROLE_ADMIN > ROLE_USER");
+        BitwiseMethodSecurityExpressionRoot root = root(List.of("ROLE_ADMIN"), List.of());
+        root.setRoleHierarchy(roleHierarchy);
+
+        assertThat(root.hasRole("USER")).isTrue();
+        assertThat(root.hasAuthority("ROLE_USER")).isTrue();
+        assertThat(root.hasRole("MODERATOR")).isFalse();
+    }
+
+    private BitwiseMethodSecurityExpressionRoot root(List<String> roles, List<String> permissions) {
+        UserPrincipal principal = UserPrincipal.create(1L, "alice", "alice@example.com", true, roles, permissions,
+                authorityBits);
+        return new BitwiseMethodSecurityExpressionRoot(
+                () -> new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()), authorityBits);
+    }
+}
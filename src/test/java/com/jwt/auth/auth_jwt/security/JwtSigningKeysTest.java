@@ -0,0 +1,40 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.config.JwtProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtSigningKeysTest {
+
+    @Test
+    void refusesAnAsymmetricAlgorithmWithoutConfiguredKeys() {
+        JwtSigningKeys signingKeys = signingKeys("ES256", false);
+
+        assertThatThrownBy(signingKeys::init)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("jwt.private-key");
+    }
+
+    @Test
+    void generatesAKeyPairOnlyWhenAskedTo() throws Exception {
+        JwtSigningKeys signingKeys = signingKeys("ES256", true);
+
+        signingKeys.init();
+
+        assertThat(signingKeys.current().keyId()).isNotBlank();
+        assertThat(new String(signingKeys.getJwks())).contains(signingKeys.current().keyId());
+    }
+
+    private static JwtSigningKeys signingKeys(String algorithm, boolean ephemeralKeys) {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setAlgorithm(algorithm);
+        jwtProperties.setEphemeralKeys(ephemeralKeys);
+        return new JwtSigningKeys(jwtProperties, new DefaultResourceLoader(),
+                new VerifiedTokenCache(new AppProperties(), new SimpleMeterRegistry()));
+    }
+}
@@ -0,0 +1,93 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.config.JwtProperties;
+import com.jwt.auth.auth_jwt.repository.RevokedAccessTokenRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET =
+            "bvUPO4LP4QOLQhldziMpTRkoQOeT/kz6NjPUAoCQPHgU3MAZjU+BrFJe3wvVm7yUhiPgXO439/9zzVo1L4g+xQ==";
+
+    private final SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AppProperties appProperties = new AppProperties();
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret(SECRET);
+        jwtProperties.setIssuer("auth-jwt-service");
+        JwtProperties.Token accessToken = new JwtProperties.Token();
+        accessToken.setExpiration(900_000);
+        jwtProperties.setAccessToken(accessToken);
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(appProperties, new SimpleMeterRegistry());
+        JwtSigningKeys signingKeys = new JwtSigningKeys(jwtProperties, new DefaultResourceLoader(), verifiedTokenCache);
+        signingKeys.init();
+        AccessTokenDenylist denylist = new AccessTokenDenylist(
+                mock(RevokedAccessTokenRepository.class), mock(AuthEventPublisher.class), appProperties);
+        tokenProvider = new JwtTokenProvider(jwtProperties, new AuthorityBits(), denylist, signingKeys, verifiedTokenCache);
+    }
+
+    @Test
+    void acceptsItsOwnTokens() {
+        JwtValidationResult result = tokenProvider.parseToken(tokenProvider.generateTokenFromUserId(42L));
+
+        assertThat(result.isValid()).isTrue();
+        assertThat(result.getUserId()).isEqualTo(42L);
+    }
+
+    @Test
+    void rejectsATokenThatIsNotYetValid() {
+        String token = Jwts.builder()
+                .subject("42")
+                .notBefore(new Date(System.currentTimeMillis() + 3_600_000))
+                .expiration(new Date(System.currentTimeMillis() + 7_200_000))
+                .signWith(key)
+                .compact();
+
+        assertThat(tokenProvider.parseToken(token).getFailure()).isEqualTo(JwtValidationResult.Failure.INVALID_CLAIMS);
+    }
+
+    @Test
+    void rejectsASubjectThatIsNotAUserId() {
+        String token = Jwts.builder()
+                .subject("admin")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(key)
+                .compact();
+
+        assertThat(tokenProvider.parseToken(token).getFailure()).isEqualTo(JwtValidationResult.Failure.INVALID_CLAIMS);
+    }
+
+    @Test
+    void rejectsATokenSignedWithAnotherKey() {
+        String token = Jwts.builder()
+                .subject("42")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Jwts.SIG.HS512.key().build())
+                .compact();
+
+        assertThat(tokenProvider.parseToken(token).getFailure()).isEqualTo(JwtValidationResult.Failure.INVALID_SIGNATURE);
+    }
+
+    @Test
+    void rejectsGarbageWithoutThrowing() {
+        assertThat(tokenProvider.parseToken("not.a.jwt").isValid()).isFalse();
+        assertThat(tokenProvider.parseToken("garbage").isValid()).isFalse();
+        assertThat(tokenProvider.parseToken("").getFailure()).isEqualTo(JwtValidationResult.Failure.EMPTY);
+    }
+}
@@ -0,0 +1,84 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginAttemptLimiterTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(15);
+
+    private LoginAttemptLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getLoginLimiter().setWindow(WINDOW);
+        appProperties.getLoginLimiter().setMaxFailuresPerUsername(3);
+        appProperties.getLoginLimiter().setMaxFailuresPerIp(5);
+        limiter = new LoginAttemptLimiter(appProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void rejectsAUsernameUntilItsFailuresLeaveTheWindow() {
+        assertThat(limiter.recordFailure("Alice", null, "10.0.0.1")).isFalse();
+        assertThat(limiter.recordFailure("alice", null, "10.0.0.2")).isFalse();
+        assertThat(limiter.recordFailure("ALICE", null, "10.0.0.3")).isTrue();
+
+        assertThatThrownBy(() -> limiter.checkAllowed("alice", "10.0.0.4"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class, ex -> assertThat(ex.getRetryAfter())
+                        .isGreaterThan(WINDOW.minus(WINDOW.dividedBy(10)))
+                        .isLessThanOrEqualTo(WINDOW));
+        assertThatCode(() -> limiter.checkAllowed("bob", "10.0.0.4")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void rejectsAnAddressAcrossUsernames() {
+        IntStream.range(0, 5).forEach(i -> limiter.recordFailure("user" + i, null, "10.0.0.1"));
+
+        assertThatThrownBy(() -> limiter.checkAllowed("someone-else", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThatCode(() -> limiter.checkAllowed("someone-else", "10.0.0.2")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void usernameAndEmailOfOneAccountShareACount() {
+        assertThat(limiter.recordFailure("alice", 7L, "10.0.0.1")).isFalse();
+        assertThat(limiter.recordFailure("alice@example.com", 7L, "10.0.0.2")).isFalse();
+        assertThat(limiter.recordFailure("alice", 7L, "10.0.0.3")).isTrue();
+
+        assertThatThrownBy(() -> limiter.checkAllowed("alice", "10.0.0.4"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThatThrownBy(() -> limiter.checkAllowed("Alice@Example.com", "10.0.0.4"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void resetClearsTheUsernameCount() {
+        IntStream.range(0, 3).forEach(i -> limiter.recordFailure("alice", null, "10.0.0." + i));
+
+        limiter.reset("Alice");
+
+        assertThatCode(() -> limiter.checkAllowed("alice", "10.0.0.9")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void resetByEitherLoginClearsTheAccountCount() {
+        limiter.recordFailure("alice", 7L, "10.0.0.1");
+        limiter.recordFailure("alice", 7L, "10.0.0.2");
+        limiter.recordFailure("alice@example.com", 7L, "10.0.0.3");
+
+        limiter.reset("alice@example.com");
+
+        assertThatCode(() -> limiter.checkAllowed("alice", "10.0.0.9")).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,100 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.repository.UserJdbcRepository;
+import com.jwt.auth.auth_jwt.repository.UserJdbcRepository.PasswordUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class PasswordRehashServiceTest {
+
+    private UserJdbcRepository userJdbcRepository;
+    private UserPrincipalCache userPrincipalCache;
+    private PasswordRehashService service;
+    private final List<List<PasswordUpdate>> batches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        userJdbcRepository = mock(UserJdbcRepository.class);
+        userPrincipalCache = mock(UserPrincipalCache.class);
+        service = new PasswordRehashService(userJdbcRepository, userPrincipalCache, mock(AuthEventPublisher.class));
+    }
+
+    @Test
+    void requeuesAFailedBatchKeepingTheOriginalGuardHash() {
+        doAnswer(invocation -> {
+            throw new QueryTimeoutException("timeout");
+        }).doAnswer(invocation -> {
+            Collection<PasswordUpdate> updates = invocation.getArgument(0);
+            batches.add(List.copyOf(updates));
+            return new int[updates.size()];
+        }).when(userJdbcRepository).updatePasswords(any(), any());
+
+        service.updatePassword(principal("old"), "new");
+        service.flush();
+        service.updatePassword(principal("old"), "newer");
+        service.flush();
+
+        assertThat(batches).singleElement().satisfies(batch -> assertThat(batch)
+                .containsExactly(new PasswordUpdate(1L, "old", "newer")));
+    }
+
+    @Test
+    void repeatLoginsBeforeTheFlushReuseTheUpgradedHash() {
+        UserPrincipalCache cache = new UserPrincipalCache(new AppProperties(), new SimpleMeterRegistry());
+        PasswordRehashService rehashService = new PasswordRehashService(userJdbcRepository, cache,
+                mock(AuthEventPublisher.class));
+        String weakHash = new BCryptPasswordEncoder(4).encode("secret");
+        PasswordEncoder passwordEncoder = spy(new BCryptPasswordEncoder(5));
+        LoginAuthenticationProvider provider = new LoginAuthenticationProvider();
+        provider.setUserDetailsService(login -> cache.getByLogin(login, key -> principal(weakHash)));
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(rehashService);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+        provider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+
+        verify(passwordEncoder, times(1)).encode("secret");
+    }
+
+    @Test
+    void drainOnShutdownWritesPendingUpgrades() {
+        doAnswer(invocation -> new int[]{1}).when(userJdbcRepository).updatePasswords(any(), any());
+
+        service.updatePassword(principal("old"), "new");
+        service.drain();
+
+        verify(userJdbcRepository).updatePasswords(any(), any());
+        verify(userPrincipalCache, never()).evict(1L);
+    }
+
+    private static UserPrincipal principal(String password) {
+        return UserPrincipal.builder()
+                .id(1L)
+                .username("alice")
+                .password(password)
+                .isEmailVerified(true)
+                .roles(Set.of())
+                .permissions(Set.of())
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.jwt.auth.auth_jwt.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingWindowCounterTest {
+
+    private static final long NOW = 28_000_000L;
+
+    @Test
+    void forgetsEventsOnceTheirBucketLeavesTheWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(10);
+        counter.increment(NOW);
+        counter.increment(NOW);
+        counter.increment(NOW + 5);
+
+        assertThat(counter.count(NOW + 5)).isEqualTo(3);
+        assertThat(counter.count(NOW + 9)).isEqualTo(3);
+        assertThat(counter.count(NOW + 10)).isEqualTo(1);
+        assertThat(counter.increment(NOW + 15)).isEqualTo(1);
+    }
+
+    @Test
+    void findsWhenTheTotalDropsBelowALimit() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(10);
+        counter.increment(NOW);
+        counter.increment(NOW + 3);
+        counter.increment(NOW + 3);
+        counter.increment(NOW + 4);
+
+        assertThat(counter.bucketsUntilBelow(NOW + 4, 4)).isEqualTo(6);
+        assertThat(counter.bucketsUntilBelow(NOW + 4, 2)).isEqualTo(9);
+        assertThat(counter.bucketsUntilBelow(NOW + 4, 1)).isEqualTo(10);
+    }
+
+    @Test
+    void countsConcurrentIncrementsExactly() throws InterruptedException {
+        SlidingWindowCounter counter = new SlidingWindowCounter(10);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        IntStream.range(0, 80_000).forEach(i -> executor.execute(() -> counter.increment(NOW + i % 3)));
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(counter.count(NOW + 2)).isEqualTo(80_000);
+    }
+}
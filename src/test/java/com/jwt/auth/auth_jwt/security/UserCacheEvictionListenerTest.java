@@ -0,0 +1,100 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.entity.Role;
+import com.jwt.auth.auth_jwt.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@Import(UserCacheEvictionListener.class)
+class UserCacheEvictionListenerTest {
+
+    @MockBean
+    private UserPrincipalCache userPrincipalCache;
+
+    @MockBean
+    private AuthEventPublisher authEventPublisher;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Role userRole;
+    private Role adminRole;
+
+    @BeforeEach
+    void setUp() {
+        userRole = entityManager.persist(Role.builder().name("ROLE_USER").build());
+        adminRole = entityManager.persist(Role.builder().name("ROLE_ADMIN").build());
+        entityManager.flush();
+        clearInvocations(userPrincipalCache, authEventPublisher);
+    }
+
+    @Test
+    void registeringAUserPublishesNothing() {
+        persistUser();
+
+        verify(authEventPublisher, never()).userChanged(anyLong());
+        verify(userPrincipalCache, never()).evict(anyLong());
+    }
+
+    @Test
+    void updatingAUserEvictsAndPublishes() {
+        User user = persistUser();
+
+        user.setFirstName("Alice");
+        entityManager.flush();
+
+        verify(userPrincipalCache).evict(user.getId());
+        verify(authEventPublisher).userChanged(user.getId());
+    }
+
+    @Test
+    void replacingTheRolesOfAUserEvictsAndPublishes() {
+        User user = persistUser();
+
+        user.setRoles(new HashSet<>(Set.of(adminRole)));
+        entityManager.flush();
+
+        verify(authEventPublisher, atLeastOnce()).userChanged(user.getId());
+    }
+
+    @Test
+    void changingTheRolesOfAUserInPlaceEvictsAndPublishes() {
+        User user = persistUser();
+
+        user.getRoles().add(adminRole);
+        entityManager.flush();
+
+        verify(authEventPublisher).userChanged(user.getId());
+    }
+
+    private User persistUser() {
+        User user = User.builder()
+                .username("alice")
+                .email("alice@example.com")
+                .password("secret")
+                .build();
+        user.setRoles(new HashSet<>(Set.of(userRole)));
+        entityManager.persist(user);
+        entityManager.flush();
+        return user;
+    }
+}
@@ -0,0 +1,68 @@
+package com.jwt.auth.auth_jwt.security;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserPrincipalCacheTest {
+
+    private final Map<String, UserPrincipal> usersByLogin = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private UserPrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserPrincipalCache(new AppProperties(), new SimpleMeterRegistry());
+        usersByLogin.put("alice", principal(7L, "alice"));
+    }
+
+    @Test
+    void servesRepeatedLoginsFromTheCache() {
+        UserPrincipal first = getByLogin("alice");
+
+        assertThat(getByLogin("alice")).isSameAs(first);
+        assertThat(cache.getById(7L, id -> null)).isSameAs(first);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void evictingAUserDropsEveryLoginThatPointsAtIt() {
+        getByLogin("alice");
+        usersByLogin.put("alice", principal(8L, "alice"));
+
+        cache.evict(7L);
+        // a reader re-caches user 7 by id before the login is looked up again
+        cache.getById(7L, id -> principal(7L, "alice-renamed"));
+
+        assertThat(getByLogin("alice").getId()).isEqualTo(8L);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evictAllDropsLogins() {
+        getByLogin("alice");
+
+        cache.evictAll();
+        getByLogin("alice");
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private UserPrincipal getByLogin(String login) {
+        return cache.getByLogin(login, key -> {
+            loads.incrementAndGet();
+            return usersByLogin.get(key);
+        });
+    }
+
+    private static UserPrincipal principal(Long id, String username) {
+        return UserPrincipal.builder().id(id).username(username).email(username + "@example.com").build();
+    }
+}
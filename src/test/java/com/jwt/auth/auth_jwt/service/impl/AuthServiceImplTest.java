@@ -0,0 +1,151 @@
+package com.jwt.auth.auth_jwt.service.impl;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.dto.request.LoginRequest;
+import com.jwt.auth.auth_jwt.entity.User;
+import com.jwt.auth.auth_jwt.exception.ResourceNotFoundException;
+import com.jwt.auth.auth_jwt.exception.TooManyRequestsException;
+import com.jwt.auth.auth_jwt.repository.RoleRepository;
+import com.jwt.auth.auth_jwt.repository.UserJdbcRepository;
+import com.jwt.auth.auth_jwt.repository.UserRepository;
+import com.jwt.auth.auth_jwt.security.AuthEventPublisher;
+import com.jwt.auth.auth_jwt.security.CustomUserDetailsService;
+import com.jwt.auth.auth_jwt.security.JwtTokenProvider;
+import com.jwt.auth.auth_jwt.security.LoginAttemptLimiter;
+import com.jwt.auth.auth_jwt.security.RoleCatalog;
+import com.jwt.auth.auth_jwt.security.UserPrincipalCache;
+import com.jwt.auth.auth_jwt.security.WrongPasswordException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceImplTest {
+
+    private static final int MAX_FAILURES = 3;
+
+    private AuthenticationManager authenticationManager;
+    private UserRepository userRepository;
+    private UserJdbcRepository userJdbcRepository;
+    private UserPrincipalCache userPrincipalCache;
+    private AuthEventPublisher authEventPublisher;
+    private LoginAttemptLimiter loginAttemptLimiter;
+    private JwtTokenProvider tokenProvider;
+    private RefreshTokenService refreshTokenService;
+    private AuthServiceImpl authService;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getLoginLimiter().setMaxFailuresPerUsername(MAX_FAILURES);
+        appProperties.getLoginLimiter().setLockDuration(Duration.ofMinutes(30));
+        authenticationManager = mock(AuthenticationManager.class);
+        userRepository = mock(UserRepository.class);
+        userJdbcRepository = mock(UserJdbcRepository.class);
+        userPrincipalCache = mock(UserPrincipalCache.class);
+        authEventPublisher = mock(AuthEventPublisher.class);
+        loginAttemptLimiter = new LoginAttemptLimiter(appProperties, new SimpleMeterRegistry());
+        tokenProvider = mock(JwtTokenProvider.class);
+        refreshTokenService = mock(RefreshTokenService.class);
+        authService = new AuthServiceImpl(authenticationManager, userRepository, mock(RoleRepository.class),
+                mock(PasswordEncoder.class), tokenProvider, refreshTokenService,
+                mock(CustomUserDetailsService.class), mock(RoleCatalog.class), mock(LoginActivityRecorder.class),
+                loginAttemptLimiter, userJdbcRepository, userPrincipalCache, authEventPublisher, appProperties);
+    }
+
+    @Test
+    void locksTheAccountForALimitedTimeOnceTheLimitIsReached() {
+        when(authenticationManager.authenticate(any())).thenThrow(new WrongPasswordException("Bad credentials", 7L));
+        when(userJdbcRepository.lockAccount(eq(7L), any(), any())).thenReturn(true);
+
+        IntStream.range(0, MAX_FAILURES).forEach(i -> assertThatThrownBy(() -> login("alice"))
+                .isInstanceOf(BadCredentialsException.class));
+        assertThatThrownBy(() -> login("alice")).isInstanceOf(TooManyRequestsException.class);
+
+        ArgumentCaptor<LocalDateTime> lockedUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(userJdbcRepository).lockAccount(eq(7L), lockedUntil.capture(), any());
+        assertThat(lockedUntil.getValue()).isAfter(LocalDateTime.now().plusMinutes(29));
+        verify(authenticationManager, times(MAX_FAILURES)).authenticate(any());
+        verify(userPrincipalCache).evict(7L);
+        verify(authEventPublisher).userChanged(7L);
+    }
+
+    @Test
+    void alternatingUsernameAndEmailCountsAgainstOneAccount() {
+        when(authenticationManager.authenticate(any())).thenThrow(new WrongPasswordException("Bad credentials", 7L));
+        when(userJdbcRepository.lockAccount(eq(7L), any(), any())).thenReturn(true);
+
+        IntStream.range(0, MAX_FAILURES).forEach(i -> assertThatThrownBy(
+                () -> login(i % 2 == 0 ? "alice" : "alice@example.com")).isInstanceOf(BadCredentialsException.class));
+        assertThatThrownBy(() -> login("alice")).isInstanceOf(TooManyRequestsException.class);
+        assertThatThrownBy(() -> login("alice@example.com")).isInstanceOf(TooManyRequestsException.class);
+
+        verify(authenticationManager, times(MAX_FAILURES)).authenticate(any());
+        verify(userJdbcRepository).lockAccount(eq(7L), any(), any());
+    }
+
+    @Test
+    void neverLocksForAnUnknownUsername() {
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        IntStream.range(0, MAX_FAILURES).forEach(i -> assertThatThrownBy(() -> login("ghost"))
+                .isInstanceOf(BadCredentialsException.class));
+
+        verify(userJdbcRepository, never()).lockAccount(any(), any(), any());
+    }
+
+    @Test
+    void unlockClearsTheLimiterHereAndOnOtherNodes() {
+        User user = User.builder().id(7L).username("alice").email("alice@example.com").build();
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        IntStream.range(0, MAX_FAILURES).forEach(i -> loginAttemptLimiter.recordFailure("alice", 7L, "10.0.0.1"));
+
+        authService.unlockAccount(7L);
+
+        assertThatCode(() -> loginAttemptLimiter.checkAllowed("alice", "10.0.0.1")).doesNotThrowAnyException();
+        assertThatCode(() -> loginAttemptLimiter.checkAllowed("alice@example.com", "10.0.0.1"))
+                .doesNotThrowAnyException();
+        verify(userJdbcRepository).unlockAccount(eq(7L), any());
+        verify(userPrincipalCache).evict(7L);
+        verify(authEventPublisher).loginFailuresReset("alice");
+        verify(authEventPublisher).loginFailuresReset("alice@example.com");
+    }
+
+    @Test
+    void logoutWithAStaleRefreshTokenStillRevokesTheAccessToken() {
+        doThrow(new ResourceNotFoundException("RefreshToken", "token", "stale"))
+                .when(refreshTokenService).revokeToken("stale");
+
+        assertThatThrownBy(() -> authService.logout("stale", "access"))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        verify(tokenProvider).revoke("access");
+    }
+
+    private void login(String usernameOrEmail) {
+        LoginRequest request = new LoginRequest();
+        request.setUsernameOrEmail(usernameOrEmail);
+        request.setPassword("wrong");
+        authService.login(request, "10.0.0.1");
+    }
+}
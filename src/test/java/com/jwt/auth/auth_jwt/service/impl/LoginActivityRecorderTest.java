@@ -0,0 +1,104 @@
+package com.jwt.auth.auth_jwt.service.impl;
+
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.repository.UserJdbcRepository;
+import com.jwt.auth.auth_jwt.repository.UserJdbcRepository.LoginActivity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LoginActivityRecorderTest {
+
+    private UserJdbcRepository userJdbcRepository;
+    private TaskScheduler taskScheduler;
+    private LoginActivityRecorder recorder;
+    private final List<List<LoginActivity>> batches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        userJdbcRepository = mock(UserJdbcRepository.class);
+        taskScheduler = mock(TaskScheduler.class);
+        AppProperties appProperties = new AppProperties();
+        appProperties.getLoginActivity().setFlushThreshold(3);
+        recorder = new LoginActivityRecorder(userJdbcRepository, taskScheduler, appProperties);
+        doAnswer(invocation -> {
+            batches.add(List.copyOf(invocation.<Collection<LoginActivity>>getArgument(0)));
+            return null;
+        }).when(userJdbcRepository).recordLoginActivity(any());
+    }
+
+    @Test
+    void coalescesOutcomesOfOneUserIntoOneRow() {
+        recorder.recordFailure(1L);
+        recorder.recordFailure(1L);
+        recorder.recordSuccess(1L);
+        recorder.recordFailure(1L);
+
+        recorder.flush();
+
+        assertThat(batches).singleElement().satisfies(batch -> assertThat(batch).singleElement().satisfies(activity -> {
+            assertThat(activity.resetFailures()).isTrue();
+            assertThat(activity.failures()).isEqualTo(1);
+            assertThat(activity.lastLoginAt()).isNotNull();
+            assertThat(activity.lastFailureAt()).isNotNull();
+        }));
+    }
+
+    @Test
+    void requeuesAFailedBatchAndMergesItWithNewerOutcomes() {
+        doAnswer(invocation -> {
+            throw new QueryTimeoutException("timeout");
+        }).doAnswer(invocation -> {
+            batches.add(List.copyOf(invocation.<Collection<LoginActivity>>getArgument(0)));
+            return null;
+        }).when(userJdbcRepository).recordLoginActivity(any());
+
+        recorder.recordFailure(1L);
+        recorder.flush();
+        recorder.recordFailure(1L);
+        recorder.flush();
+
+        assertThat(batches).singleElement().satisfies(batch -> assertThat(batch).singleElement()
+                .extracting(LoginActivity::failures).isEqualTo(2));
+    }
+
+    @Test
+    void handsTheEarlyFlushToTheSchedulerOnce() {
+        recorder.recordFailure(1L);
+        recorder.recordFailure(2L);
+        recorder.recordFailure(3L);
+        recorder.recordFailure(4L);
+
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(1)).schedule(flush.capture(), any(Instant.class));
+        verify(userJdbcRepository, never()).recordLoginActivity(any());
+
+        flush.getValue().run();
+        assertThat(batches).singleElement().satisfies(batch -> assertThat(batch).hasSize(4));
+    }
+
+    @Test
+    void drainOnShutdownWritesEverythingPending() {
+        recorder.recordSuccess(1L);
+        recorder.recordFailure(2L);
+
+        recorder.drain();
+
+        assertThat(batches).singleElement().satisfies(batch -> assertThat(batch).hasSize(2));
+    }
+}
@@ -0,0 +1,211 @@
+package com.jwt.auth.auth_jwt.service.impl;
+
+import com.jwt.auth.auth_jwt.PostgresTestSupport;
+import com.jwt.auth.auth_jwt.config.AppProperties;
+import com.jwt.auth.auth_jwt.entity.RefreshToken;
+import com.jwt.auth.auth_jwt.entity.User;
+import com.jwt.auth.auth_jwt.exception.TokenRefreshException;
+import com.jwt.auth.auth_jwt.repository.RefreshTokenJdbcRepository;
+import com.jwt.auth.auth_jwt.repository.UserRepository;
+import com.jwt.auth.auth_jwt.security.AuthEventPublisher;
+import com.jwt.auth.auth_jwt.security.UserPrincipalCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "jwt.refresh-token.expiration=600000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RefreshTokenService.class, RefreshTokenJdbcRepository.class, AppProperties.class})
+class RefreshTokenServiceTest extends PostgresTestSupport {
+
+    @MockBean
+    private UserPrincipalCache userPrincipalCache;
+
+    @MockBean
+    private AuthEventPublisher authEventPublisher;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM users");
+        appProperties.getSession().setMaxActivePerUser(5);
+        appProperties.getSession().setRotationGrace(Duration.ofSeconds(10));
+        userId = userRepository.save(User.builder()
+                .username("alice")
+                .email("alice@example.com")
+                .password("secret")
+                .build()).getId();
+    }
+
+    @Test
+    void rotateIssuesASuccessorAndRetiresThePresentedToken() {
+        String token = refreshTokenService.createRefreshToken(userId).getToken();
+
+        RefreshTokenService.RotatedRefreshToken rotated = refreshTokenService.rotate(token);
+
+        assertThat(rotated.userId()).isEqualTo(userId);
+        assertThat(rotated.token()).isNotEqualTo(token);
+        RefreshToken retired = refreshTokenService.findByToken(token).orElseThrow();
+        RefreshToken successor = refreshTokenService.findByToken(rotated.token()).orElseThrow();
+        assertThat(retired.isRevoked()).isTrue();
+        assertThat(retired.getRotatedAt()).isNotNull();
+        assertThat(successor.isRevoked()).isFalse();
+        assertThat(successor.getFamilyId()).isEqualTo(retired.getFamilyId());
+    }
+
+    @Test
+    void anExpiredTokenIsRejectedWithoutBeingMarkedAsRotated() {
+        String token = refreshTokenService.createRefreshToken(userId).getToken();
+        jdbcTemplate.update("UPDATE refresh_tokens SET expires_at = ? WHERE user_id = ?",
+                LocalDateTime.now().minusMinutes(1), userId);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(token))
+                .isInstanceOf(TokenRefreshException.class)
+                .hasMessageContaining("expired");
+        RefreshToken expired = refreshTokenService.findByToken(token).orElseThrow();
+        assertThat(expired.isRevoked()).isFalse();
+        assertThat(expired.getRotatedAt()).isNull();
+    }
+
+    @Test
+    void concurrentRefreshesOfOneTokenLetOneWinWithoutRevokingItsSuccessor() throws Exception {
+        String token = refreshTokenService.createRefreshToken(userId).getToken();
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        Callable<RefreshTokenService.RotatedRefreshToken> refresh = () -> {
+            barrier.await();
+            return refreshTokenService.rotate(token);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<RefreshTokenService.RotatedRefreshToken> winners = new ArrayList<>();
+        List<Throwable> losers = new ArrayList<>();
+        try {
+            for (Future<RefreshTokenService.RotatedRefreshToken> future :
+                    List.of(executor.submit(refresh), executor.submit(refresh))) {
+                try {
+                    winners.add(future.get());
+                } catch (ExecutionException ex) {
+                    losers.add(ex.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(winners).hasSize(1);
+        assertThat(losers).singleElement()
+                .isInstanceOf(TokenRefreshException.class)
+                .extracting(Throwable::getMessage).asString().contains("just rotated");
+        assertThat(refreshTokenService.rotate(winners.get(0).token()).userId()).isEqualTo(userId);
+    }
+
+    @Test
+    void replayingARotatedTokenAfterTheGraceWindowRevokesTheFamily() {
+        appProperties.getSession().setRotationGrace(Duration.ZERO);
+        String token = refreshTokenService.createRefreshToken(userId).getToken();
+        String successor = refreshTokenService.rotate(token).token();
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(token))
+                .isInstanceOf(TokenRefreshException.class)
+                .hasMessageContaining("already used");
+        assertThat(refreshTokenService.findByToken(successor).orElseThrow().isRevoked()).isTrue();
+        assertThatThrownBy(() -> refreshTokenService.rotate(successor))
+                .isInstanceOf(TokenRefreshException.class)
+                .hasMessageContaining("was revoked");
+    }
+
+    @Test
+    void sessionCapRevokesTheOldestActiveTokens() {
+        appProperties.getSession().setMaxActivePerUser(3);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tokens.add(refreshTokenService.createRefreshToken(userId).getToken());
+        }
+
+        assertThat(tokens).map(token -> refreshTokenService.findByToken(token).orElseThrow().isRevoked())
+                .containsExactly(true, true, false, false, false);
+    }
+
+    @Test
+    void concurrentLoginsStayWithinTheSessionCap() throws Exception {
+        appProperties.getSession().setMaxActivePerUser(2);
+        int logins = 8;
+        CyclicBarrier barrier = new CyclicBarrier(logins);
+        ExecutorService executor = Executors.newFixedThreadPool(logins);
+        try {
+            List<Future<RefreshToken>> futures = new ArrayList<>();
+            for (int i = 0; i < logins; i++) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    return refreshTokenService.createRefreshToken(userId);
+                }));
+            }
+            for (Future<RefreshToken> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_tokens WHERE user_id = ? AND is_revoked = FALSE", Integer.class, userId))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void tokensRevokedByLogoutOrTheSessionCapAreNotTreatedAsReplay() {
+        appProperties.getSession().setRotationGrace(Duration.ZERO);
+        appProperties.getSession().setMaxActivePerUser(1);
+        String capped = refreshTokenService.createRefreshToken(userId).getToken();
+        String active = refreshTokenService.createRefreshToken(userId).getToken();
+        String loggedOut = refreshTokenService.rotate(active).token();
+        refreshTokenService.revokeToken(loggedOut);
+        String current = refreshTokenService.createRefreshToken(userId).getToken();
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(capped))
+                .isInstanceOf(TokenRefreshException.class)
+                .hasMessageContaining("was revoked");
+        assertThatThrownBy(() -> refreshTokenService.rotate(loggedOut))
+                .isInstanceOf(TokenRefreshException.class)
+                .hasMessageContaining("was revoked");
+        assertThat(refreshTokenService.rotate(current).userId()).isEqualTo(userId);
+    }
+}